@@ -31,10 +31,9 @@
  */
 package com.github.gwtd3.api;
 
-import com.github.gwtd3.api.core.Value;
 import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.JavascriptAccessor;
 import com.google.gwt.core.client.JavaScriptObject;
-import com.google.gwt.dom.client.Element;
 
 /**
  * A Javascript object containing x and y properties.
@@ -100,22 +99,18 @@ public final native String toCommaSeparatedString()/*-{
 	/**
 	 * Convenient {@link DatumFunction} that return the x component of a
 	 * {@link Coords} datum.
+	 * <p>
+	 * This is a {@link JavascriptAccessor}, evaluated by d3 without calling
+	 * back into Java.
 	 */
-	public static final DatumFunction<Double> X_ACCESSOR = new DatumFunction<Double>() {
-		@Override
-		public Double apply(Element context, Value d, int index) {
-			return d.<Coords> as().x();
-		}
-	};
+	public static final DatumFunction<Double> X_ACCESSOR = JavascriptAccessor.property("x");
 
 	/**
 	 * Convenient {@link DatumFunction} that return the y component of a
 	 * {@link Coords} datum.
+	 * <p>
+	 * This is a {@link JavascriptAccessor}, evaluated by d3 without calling
+	 * back into Java.
 	 */
-	public static final DatumFunction<Double> Y_ACCESSOR = new DatumFunction<Double>() {
-		@Override
-		public Double apply(Element context, Value d, int index) {
-			return d.<Coords> as().y();
-		}
-	};
+	public static final DatumFunction<Double> Y_ACCESSOR = JavascriptAccessor.property("y");
 }
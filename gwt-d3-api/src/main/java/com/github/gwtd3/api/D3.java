@@ -43,8 +43,10 @@
 import com.github.gwtd3.api.behaviour.Zoom;
 import com.github.gwtd3.api.behaviour.Zoom.ZoomEvent;
 import com.github.gwtd3.api.core.Formatter;
+import com.github.gwtd3.api.core.Instrumentation;
 import com.github.gwtd3.api.core.Prefix;
 import com.github.gwtd3.api.core.Selection;
+import com.github.gwtd3.api.core.TimerQueue;
 import com.github.gwtd3.api.core.Transition;
 import com.github.gwtd3.api.dsv.Dsv;
 import com.github.gwtd3.api.dsv.DsvCallback;
@@ -108,6 +110,13 @@ public class D3 extends JavaScriptObject {
      */
     public static final Scales scale = Scales.get();
 
+    // =========== instrumentation ==============
+    /**
+     * The instrumentation of the selections and transitions, enabled by the <code>d3.instrumentation</code>
+     * deferred-binding property. See {@link Instrumentation}.
+     */
+    public static final Instrumentation instrumentation = Instrumentation.get();
+
     protected D3() {
     }
 
@@ -173,7 +182,10 @@ public static final Selection select(final Widget widget) {
      * @return
      */
     public static final native Selection selectAll(String selector)/*-{
-		return $wnd.d3.selectAll(selector);
+		var selection = $wnd.d3.selectAll(selector);
+		// identifies the key indexes of dataDelta, as in Selection#selectAll
+		selection.__gwtd3_selector__ = selector;
+		return selection;
     }-*/;
 
     /**
@@ -408,7 +420,8 @@ public static final native void timer(TimerFunction command, int delayMillis) /*
     /**
      * Start a custom animation timer, invoking the specified {@link TimerFunction} repeatedly until it returns true.
      * <p>
-     * There is no way to cancel the timer after it starts, so make sure your timer function returns true when done!
+     * There is no way to cancel the timer after it starts, so make sure your timer function returns true when done! Use
+     * the {@link #timerQueue()} to get a cancellable handle, priorities and a shared frame budget.
      *
      * The optional numeric delay [unit: integer, millisecond] may be specified when the given function should only
      * start to be invoked after delay milliseconds have expired after the specified mark timestamp [unit: integer,
@@ -465,6 +478,16 @@ public static final native void timerFlush()/*-{
 		return $wnd.d3.timer.flush();
     }-*/;
 
+    /**
+     * Returns the shared {@link TimerQueue}, which executes its functions by priority within a per-frame budget and
+     * returns cancellable handles measuring their execution time.
+     *
+     * @return the shared timer queue
+     */
+    public static final TimerQueue timerQueue() {
+        return TimerQueue.get();
+    }
+
     // =========== time ==============
 
     /**
@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.core;
+
+import com.github.gwtd3.api.functions.AttributesFunction;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.dom.client.Element;
+
+/**
+ * A reusable record of attribute names and values, filled by an {@link AttributesFunction} for each element of a
+ * {@link Selection} and then written to the element by {@link Selection#attrs(AttributesFunction)}.
+ * <p>
+ * The record is cleared before the function is invoked for the next element, so the same instance is used for the
+ * whole selection: it must not be retained by the function.
+ */
+public class Attributes extends JavaScriptObject {
+
+    protected Attributes() {
+        super();
+    }
+
+    /**
+     * Create an empty record.
+     *
+     * @return the record
+     */
+    public static final native Attributes create()/*-{
+		return {
+			names : [],
+			values : [],
+			length : 0
+		};
+    }-*/;
+
+    /**
+     * Set the attribute with the specified name to the specified value.
+     * <p>
+     * The name may have a namespace prefix, such as xlink:href.
+     *
+     * @param name
+     *            the name of the attribute
+     * @param value
+     *            the value of the attribute, or null to remove the attribute
+     * @return the record
+     */
+    public final native Attributes set(String name, String value)/*-{
+		var l = this.length++;
+		this.names[l] = name;
+		this.values[l] = value;
+		return this;
+    }-*/;
+
+    /**
+     * Set the attribute with the specified name to the specified value.
+     *
+     * @param name
+     *            the name of the attribute
+     * @param value
+     *            the value of the attribute
+     * @return the record
+     */
+    public final native Attributes set(String name, double value)/*-{
+		var l = this.length++;
+		this.names[l] = name;
+		this.values[l] = value;
+		return this;
+    }-*/;
+
+    /**
+     * Set the attribute with the specified name to the specified value.
+     *
+     * @param name
+     *            the name of the attribute
+     * @param value
+     *            the value of the attribute
+     * @return the record
+     */
+    public final native Attributes set(String name, int value)/*-{
+		var l = this.length++;
+		this.names[l] = name;
+		this.values[l] = value;
+		return this;
+    }-*/;
+
+    /**
+     * @return the number of attributes in the record
+     */
+    public final native int length()/*-{
+		return this.length;
+    }-*/;
+
+    /**
+     * Remove all the attributes from the record.
+     *
+     * @return the record
+     */
+    public final native Attributes clear()/*-{
+		this.length = 0;
+		return this;
+    }-*/;
+
+    /**
+     * Write the attributes of the record to the given element.
+     *
+     * @param element
+     *            the element
+     * @param counters
+     *            the counters of the selection in change-detection mode, or null to write all the attributes
+     */
+    final native void applyTo(Element element, WriteCounters counters)/*-{
+		for (var j = 0; j < this.length; j++) {
+			var name = this.names[j], value = this.values[j];
+			if (counters
+					&& !counters.@com.github.gwtd3.api.core.WriteCounters::record(Lcom/google/gwt/dom/client/Element;Ljava/lang/String;Ljava/lang/Object;)(element, 'attr:' + name, value)) {
+				continue;
+			}
+			@com.github.gwtd3.api.core.SelectionCache::mutatedBy(Ljava/lang/String;)(name);
+			name = $wnd.d3.ns.qualify(name);
+			if (value == null) {
+				name.local ? element.removeAttributeNS(name.space, name.local)
+						: element.removeAttribute(name);
+			} else {
+				name.local ? element.setAttributeNS(name.space, name.local, value)
+						: element.setAttribute(name, value);
+			}
+		}
+    }-*/;
+
+    /**
+     * Record the attributes of the record as deferred writes to the given element.
+     * <p>
+     * See {@link Selection#deferred()}.
+     *
+     * @param element
+     *            the element
+     */
+    final native void deferTo(Element element)/*-{
+		for (var j = 0; j < this.length; j++) {
+			@com.github.gwtd3.api.core.DeferredWrites::write(Lcom/google/gwt/dom/client/Element;Ljava/lang/String;Ljava/lang/String;Ljava/lang/Object;Ljava/lang/String;)(element, 'attr', this.names[j], this.values[j], null);
+		}
+    }-*/;
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.core;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.dom.client.Element;
+
+/**
+ * The queue of the writes recorded by the selections in deferred mode, flushed once per animation frame.
+ * <p>
+ * See {@link Selection#deferred()}.
+ */
+final class DeferredWrites {
+
+    /**
+     * The nodes having pending writes, or null.
+     */
+    private static JavaScriptObject pending;
+
+    private DeferredWrites() {
+    }
+
+    /**
+     * Record a write to the given node, replacing any pending write of the same property, and schedule a flush on the
+     * next animation frame.
+     *
+     * @param node
+     *            the node
+     * @param kind
+     *            attr, style or text
+     * @param name
+     *            the name of the attribute or style property, ignored for text
+     * @param value
+     *            the value to write, or null for a removal
+     * @param priority
+     *            the priority of the style property
+     */
+    static native void write(Element node, String kind, String name, Object value, String priority)/*-{
+		var writes = node.__gwtd3_deferred__;
+		if (!writes) {
+			writes = node.__gwtd3_deferred__ = {};
+			var queue = @com.github.gwtd3.api.core.DeferredWrites::pending;
+			if (!queue) {
+				queue = @com.github.gwtd3.api.core.DeferredWrites::pending = [];
+				$wnd.requestAnimationFrame($entry(function() {
+					@com.github.gwtd3.api.core.DeferredWrites::flush()();
+				}));
+			}
+			queue.push(node);
+		}
+		var key = kind + ':' + name, w = writes[key];
+		if (w) {
+			// last write wins, but keep the order of the first write
+			w.value = value;
+			w.priority = priority;
+		} else {
+			writes[key] = {
+				kind : kind,
+				name : name,
+				value : value,
+				priority : priority
+			};
+		}
+    }-*/;
+
+    /**
+     * Apply all the pending writes now.
+     */
+    static native void flush()/*-{
+		var queue = @com.github.gwtd3.api.core.DeferredWrites::pending;
+		if (!queue) {
+			return;
+		}
+		@com.github.gwtd3.api.core.DeferredWrites::pending = null;
+		for (var i = 0, n = queue.length; i < n; i++) {
+			var node = queue[i], writes = node.__gwtd3_deferred__;
+			node.__gwtd3_deferred__ = null;
+			for ( var key in writes) {
+				var w = writes[key], value = w.value;
+				if (w.kind == 'attr') {
+					@com.github.gwtd3.api.core.SelectionCache::mutatedBy(Ljava/lang/String;)(w.name);
+					var q = $wnd.d3.ns.qualify(w.name);
+					if (value == null) {
+						q.local ? node.removeAttributeNS(q.space, q.local) : node.removeAttribute(q);
+					} else {
+						q.local ? node.setAttributeNS(q.space, q.local, value) : node.setAttribute(q, value);
+					}
+				} else if (w.kind == 'style') {
+					if (value == null) {
+						node.style.removeProperty(w.name);
+					} else {
+						node.style.setProperty(w.name, value, w.priority);
+					}
+				} else {
+					node.textContent = value == null ? '' : value;
+				}
+			}
+		}
+    }-*/;
+}
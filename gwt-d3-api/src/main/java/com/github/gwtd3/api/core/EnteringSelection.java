@@ -35,6 +35,7 @@
 import com.github.gwtd3.api.IsFunction;
 import com.github.gwtd3.api.arrays.Array;
 import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.SelectionFunction;
 import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.dom.client.Element;
 import com.google.gwt.dom.client.Node;
@@ -86,9 +87,126 @@ protected EnteringSelection() {
      * @return a new selection containing the appended elements
      */
     public native final Selection append(String name)/*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutated()();
 		return this.append(name);
     }-*/;
 
+    /**
+     * Same as {@link #append(String)}, but takes the elements from the given pool when it contains elements with the
+     * same name, and only creates the missing elements.
+     * <p>
+     * The recycled elements keep the attributes they had when they were put into the pool, see {@link NodePool}.
+     *
+     * @param name
+     *            the name of the new element to append
+     * @param pool
+     *            the pool of elements to reuse
+     * @return a new selection containing the appended elements
+     */
+    public native final Selection append(String name, NodePool pool)/*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutated()();
+		return this
+				.append(pool.@com.github.gwtd3.api.core.NodePool::taker(Ljava/lang/String;)(name));
+    }-*/;
+
+    /**
+     * Same as {@link #append(String)}, but builds the new elements of each parent in a DocumentFragment, detached from
+     * the document, and attaches them with a single insertion per parent.
+     * <p>
+     * The elements are appended in the order of the data, as with {@link #append(String)}, and the returned selection
+     * is a regular selection, merged into the update selection as well.
+     *
+     * @param name
+     *            the name of the new element to append
+     * @return a new selection containing the appended elements
+     */
+    public final Selection bulkAppend(final String name) {
+        return bulkAppend(name, null);
+    }
+
+    /**
+     * Same as {@link #bulkAppend(String)}, but applies the given function to the new elements while they are still
+     * detached, so that setting their attributes does not invalidate the style or the layout of the document.
+     *
+     * @param name
+     *            the name of the new element to append
+     * @param init
+     *            the function initializing the new elements before they are attached, or null
+     * @return a new selection containing the appended elements
+     */
+    public native final Selection bulkAppend(String name, SelectionFunction init)/*-{
+		var create = @com.github.gwtd3.api.core.EnteringSelection::creator(Ljava/lang/String;)(name);
+		var subgroups = [], fragments = [];
+		for (var j = 0, m = this.length; j < m; j++) {
+			var group = this[j], upgroup = group.update, parent = group.parentNode;
+			var subgroup = [], fragment = parent.ownerDocument.createDocumentFragment();
+			subgroup.parentNode = parent;
+			for (var i = 0, n = group.length; i < n; i++) {
+				var node = group[i];
+				if (node) {
+					var subnode = create.call(parent);
+					subnode.__data__ = node.__data__;
+					fragment.appendChild(subnode);
+					subgroup.push(subnode);
+					if (upgroup) {
+						upgroup[i] = subnode;
+					}
+				} else {
+					subgroup.push(null);
+				}
+			}
+			subgroups.push(subgroup);
+			fragments.push(fragment);
+		}
+		subgroups.__proto__ = $wnd.d3.selection.prototype;
+		if (init) {
+			init.@com.github.gwtd3.api.functions.SelectionFunction::apply(Lcom/github/gwtd3/api/core/Selection;)(subgroups);
+		}
+		for (var j = 0, m = subgroups.length; j < m; j++) {
+			subgroups[j].parentNode.appendChild(fragments[j]);
+		}
+		@com.github.gwtd3.api.core.SelectionCache::mutated()();
+		return subgroups;
+    }-*/;
+
+    /**
+     * Returns a {@link ProgressiveRendering} appending new elements with the specified name to the parents of the
+     * current selection progressively, over several animation frames.
+     * <p>
+     * The rendering must be started with {@link ProgressiveRendering#start()}.
+     *
+     * @param name
+     *            the name of the new elements to append
+     * @return the rendering, not started yet
+     */
+    public final ProgressiveRendering progressiveAppend(final String name) {
+        return new ProgressiveRendering(this, name);
+    }
+
+    /**
+     * Returns a function creating an element with the given name when called with the parent element as the this
+     * context, using the same namespace rules as d3's append operator.
+     *
+     * @param name
+     *            the name of the element, with an optional namespace prefix
+     * @return the function
+     */
+    static native JavaScriptObject creator(String name)/*-{
+		var q = $wnd.d3.ns.qualify(name);
+		if (q.local) {
+			return function() {
+				return this.ownerDocument.createElementNS(q.space, q.local);
+			};
+		}
+		return function() {
+			var document = this.ownerDocument, namespace = this.namespaceURI;
+			// inherit the namespace of the parent
+			return namespace === 'http://www.w3.org/1999/xhtml'
+					&& document.documentElement.namespaceURI === namespace ? document
+					.createElement(q) : document.createElementNS(namespace, q);
+		};
+    }-*/;
+
     /**
      * Appends the new node returned by the given function, as the last child of each
      * element in the current selection.
@@ -104,6 +222,7 @@ public native final Selection append(String name)/*-{
      * @return a new selection containing the appended elements
      */
     public native final Selection append(DatumFunction<Node> nodeFactory)/*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutated()();
 		return this
 				.append(function(d, i) {
 					return nodeFactory.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
@@ -187,6 +306,7 @@ public final native Selection select(DatumFunction<Element> func)/*-{
      * @return a new selection containing the inserted elements
      */
     public native final Selection insert(String name, String beforeSelector)/*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutated()();
 		return this.insert(name, beforeSelector);
     }-*/;
 
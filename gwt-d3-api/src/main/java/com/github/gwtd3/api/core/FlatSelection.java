@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.core;
+
+import com.github.gwtd3.api.arrays.Array;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayInteger;
+import com.google.gwt.dom.client.Element;
+
+/**
+ * The elements of a {@link Selection} and their data, as flat index-aligned arrays, returned by
+ * {@link Selection#flatten()}.
+ * <p>
+ * This allows to iterate over a selection with a plain Java loop, without any callback per element:
+ *
+ * <pre>
+ * FlatSelection flat = selection.flatten();
+ * Array&lt;Element&gt; nodes = flat.nodes();
+ * Array&lt;Coords&gt; data = flat.data();
+ * for (int i = 0, n = flat.length(); i &lt; n; i++) {
+ *     Coords c = data.get(i);
+ *     ...
+ * }
+ * </pre>
+ * <p>
+ * The arrays are a snapshot: they are not updated when the selection or the data change.
+ */
+public class FlatSelection extends JavaScriptObject {
+
+    protected FlatSelection() {
+        super();
+    }
+
+    /**
+     * @return the number of elements
+     */
+    public final native int length()/*-{
+		return this.nodes.length;
+    }-*/;
+
+    /**
+     * Returns the non-null elements of the selection, group after group, in the order of the selection.
+     *
+     * @return the elements
+     */
+    public final native Array<Element> nodes()/*-{
+		return this.nodes;
+    }-*/;
+
+    /**
+     * Returns the data bound to the elements, at the same indexes as {@link #nodes()}.
+     *
+     * @return the data
+     */
+    public final native <T> Array<T> data()/*-{
+		return this.data;
+    }-*/;
+
+    /**
+     * Returns the index of each element in its group, at the same indexes as {@link #nodes()}, as passed to the
+     * operator functions of the selection.
+     *
+     * @return the indexes
+     */
+    public final native JsArrayInteger indexes()/*-{
+		return this.indexes;
+    }-*/;
+
+    /**
+     * Returns the index of the group of each element, at the same indexes as {@link #nodes()}.
+     *
+     * @return the group indexes
+     */
+    public final native JsArrayInteger groups()/*-{
+		return this.groups;
+    }-*/;
+}
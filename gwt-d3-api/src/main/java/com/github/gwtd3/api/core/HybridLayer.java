@@ -0,0 +1,433 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.core;
+
+import com.github.gwtd3.api.D3;
+import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.JavascriptAccessor;
+import com.github.gwtd3.api.functions.SelectionFunction;
+import com.github.gwtd3.api.svg.PathDataGenerator;
+import com.google.gwt.canvas.dom.client.Context2d;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.dom.client.CanvasElement;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.dom.client.Style.Display;
+
+/**
+ * A layer of marks rendered as SVG elements while the dataset is small, and painted on a canvas above a threshold.
+ * <p>
+ * The code doing the data join only calls {@link #data(JavaScriptObject)}: below or at the {@link #threshold(int)},
+ * the data are joined with the elements of the SVG container, and the enter and update functions are applied as
+ * usual; above it, the SVG elements are removed, and the data are painted on the canvas by the painter. Small charts
+ * thus stay crisp and inspectable, while big ones do not create thousands of DOM nodes.
+ * <p>
+ * The listeners registered with {@link #on(String, DatumFunction)} receive the same datum and index in both modes: on
+ * the canvas, the datum under the mouse is found with a quadtree built on the positions of the data, see
+ * {@link #find(double, double)}.
+ *
+ * <pre>
+ * HybridLayer layer = new HybridLayer(svg.append(&quot;g&quot;), canvasElement, &quot;circle&quot;)
+ *         .positions(JavascriptAccessor.property(&quot;x&quot;), JavascriptAccessor.property(&quot;y&quot;))
+ *         .onEnter(...).onUpdate(...)
+ *         .mark(D3.svg().symbol().size(16), &quot;steelblue&quot;)
+ *         .on(&quot;click&quot;, listener);
+ * layer.data(array);
+ * </pre>
+ * <p>
+ * The canvas is expected to be positioned over the SVG container, in the same coordinate system.
+ */
+public class HybridLayer {
+
+    /**
+     * Paints the data on the canvas when the layer is above its threshold.
+     */
+    public static interface Painter {
+        /**
+         * Paints the given data. The canvas has already been cleared.
+         *
+         * @param context
+         *            the context of the canvas
+         * @param data
+         *            the array of data
+         */
+        void paint(Context2d context, JavaScriptObject data);
+    }
+
+    private final Selection container;
+
+    private final CanvasElement canvas;
+
+    private final String tagName;
+
+    private int threshold = 2000;
+
+    private double radius = 5;
+
+    private DatumFunction<Double> x = JavascriptAccessor.property("x");
+
+    private DatumFunction<Double> y = JavascriptAccessor.property("y");
+
+    private SelectionFunction enterFunction;
+
+    private SelectionFunction updateFunction;
+
+    private Painter painter;
+
+    private JavaScriptObject data;
+
+    private JavaScriptObject quadtree;
+
+    private boolean canvasMode;
+
+    private final JavaScriptObject listeners = JavaScriptObject.createObject();
+
+    /**
+     * Create a layer of the elements with the given tag name in the given container, switching to the given canvas
+     * above the threshold.
+     *
+     * @param container
+     *            the element holding the SVG elements, usually an svg g element
+     * @param canvas
+     *            the canvas element positioned over the container
+     * @param tagName
+     *            the tag name of the SVG elements
+     */
+    public HybridLayer(final Selection container, final CanvasElement canvas, final String tagName) {
+        this.container = container;
+        this.canvas = canvas;
+        this.tagName = tagName;
+        canvas.getStyle().setDisplay(Display.NONE);
+    }
+
+    /**
+     * Sets the maximum number of data rendered as SVG elements; the data are painted on the canvas above it. The
+     * default threshold is 2000.
+     *
+     * @param threshold
+     *            the threshold
+     * @return this layer
+     */
+    public HybridLayer threshold(final int threshold) {
+        this.threshold = threshold;
+        return this;
+    }
+
+    /**
+     * Sets the accessors computing the position of each datum on the canvas, used by the painter set with
+     * {@link #mark(PathDataGenerator, String)} and to find the datum under the mouse. The default accessors read the x
+     * and y properties of the data.
+     *
+     * @param x
+     *            the x accessor
+     * @param y
+     *            the y accessor
+     * @return this layer
+     */
+    public HybridLayer positions(final DatumFunction<Double> x, final DatumFunction<Double> y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    /**
+     * Sets the maximum distance between the mouse and the position of a datum for the datum to be hit on the canvas.
+     * The default radius is 5.
+     *
+     * @param radius
+     *            the radius
+     * @return this layer
+     */
+    public HybridLayer radius(final double radius) {
+        this.radius = radius;
+        return this;
+    }
+
+    /**
+     * Sets the function applied to the newly appended SVG elements.
+     *
+     * @param enterFunction
+     *            the function
+     * @return this layer
+     */
+    public HybridLayer onEnter(final SelectionFunction enterFunction) {
+        this.enterFunction = enterFunction;
+        return this;
+    }
+
+    /**
+     * Sets the function applied to all the SVG elements after each join.
+     *
+     * @param updateFunction
+     *            the function
+     * @return this layer
+     */
+    public HybridLayer onUpdate(final SelectionFunction updateFunction) {
+        this.updateFunction = updateFunction;
+        return this;
+    }
+
+    /**
+     * Sets the painter used above the threshold.
+     *
+     * @param painter
+     *            the painter
+     * @return this layer
+     */
+    public HybridLayer onPaint(final Painter painter) {
+        this.painter = painter;
+        return this;
+    }
+
+    /**
+     * Sets a painter filling the shape produced by the given generator at the position of each datum, see
+     * {@link PathDataGenerator#fillEach(Context2d, JavaScriptObject, DatumFunction, DatumFunction)}.
+     *
+     * @param generator
+     *            the generator of the shape of each datum, usually a symbol
+     * @param fillStyle
+     *            the fill style
+     * @return this layer
+     */
+    public HybridLayer mark(final PathDataGenerator generator, final String fillStyle) {
+        return onPaint(new Painter() {
+            @Override
+            public void paint(final Context2d context, final JavaScriptObject data) {
+                context.setFillStyle(fillStyle);
+                generator.fillEach(context, data, x, y);
+            }
+        });
+    }
+
+    /**
+     * Registers a listener for the given event type, invoked with the datum and the index of the SVG element or of the
+     * datum found under the mouse on the canvas.
+     * <p>
+     * On the canvas, the listener is invoked with the canvas element as context, and is not invoked when no datum is
+     * within the {@link #radius(double)} of the mouse.
+     *
+     * @param eventType
+     *            the event type
+     * @param listener
+     *            the listener, or null to remove it
+     * @return this layer
+     */
+    public HybridLayer on(final String eventType, final DatumFunction<Void> listener) {
+        setListener(listeners, eventType, listener);
+        if (canvasMode) {
+            listenCanvas(eventType, listener);
+        } else {
+            container.selectAll(tagName).on(eventType, listener);
+        }
+        return this;
+    }
+
+    /**
+     * Binds the given data, rendering them as SVG elements or on the canvas depending on their number.
+     *
+     * @param data
+     *            the array of data
+     * @return this layer
+     */
+    public HybridLayer data(final JavaScriptObject data) {
+        this.data = data;
+        this.quadtree = null;
+        boolean wasCanvas = canvasMode;
+        canvasMode = length(data) > threshold;
+        if (canvasMode) {
+            if (!wasCanvas) {
+                container.selectAll(tagName).remove();
+                canvas.getStyle().clearDisplay();
+                forEachListener(true);
+            }
+            paint();
+        } else {
+            if (wasCanvas) {
+                forEachListener(false);
+                clear();
+                canvas.getStyle().setDisplay(Display.NONE);
+            }
+            join();
+        }
+        return this;
+    }
+
+    /**
+     * Renders the current data again, for instance after a change of the scales used by the painter or the update
+     * function.
+     *
+     * @return this layer
+     */
+    public HybridLayer render() {
+        if (data == null) {
+            return this;
+        }
+        if (canvasMode) {
+            paint();
+        } else {
+            join();
+        }
+        return this;
+    }
+
+    /**
+     * @return true if the data are currently painted on the canvas, false if they are rendered as SVG elements
+     */
+    public boolean isCanvas() {
+        return canvasMode;
+    }
+
+    /**
+     * Returns the index of the datum closest to the given position within the {@link #radius(double)}, or -1 if
+     * there is none. The quadtree is built on the first call after each change of data.
+     *
+     * @param px
+     *            the x coordinate
+     * @param py
+     *            the y coordinate
+     * @return the index of the datum found, or -1
+     */
+    public int find(final double px, final double py) {
+        if (data == null) {
+            return -1;
+        }
+        if (quadtree == null) {
+            quadtree = quadtree(data, x, y);
+        }
+        return find(quadtree, px, py, radius);
+    }
+
+    /**
+     * @return the selection of the SVG elements currently in the DOM, empty when painting on the canvas
+     */
+    public Selection selection() {
+        return container.selectAll(tagName);
+    }
+
+    private void join() {
+        UpdateSelection update = container.selectAll(tagName).data(data);
+        Selection entered = update.enter().append(tagName);
+        if (enterFunction != null) {
+            enterFunction.apply(entered);
+        }
+        update.exit().remove();
+        if (updateFunction != null) {
+            updateFunction.apply(update);
+        }
+        forEachListener(false);
+    }
+
+    private void paint() {
+        Context2d context = clear();
+        if (painter != null) {
+            painter.paint(context, data);
+        }
+    }
+
+    private Context2d clear() {
+        Context2d context = canvas.getContext2d();
+        context.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        return context;
+    }
+
+    private void listenCanvas(final String eventType, final DatumFunction<Void> listener) {
+        D3.select(canvas).on(eventType + ".gwtd3hybrid", listener == null ? null : new DatumFunction<Void>() {
+            @Override
+            public Void apply(final Element context, final Value d, final int index) {
+                int found = find(D3.mouseX(canvas), D3.mouseY(canvas));
+                if (found >= 0) {
+                    listener.apply(canvas, Value.create(data, String.valueOf(found)), found);
+                }
+                return null;
+            }
+        });
+    }
+
+    private void forEachListener(final boolean onCanvas) {
+        JavaScriptObject types = types(listeners);
+        for (int i = 0, n = length(types); i < n; i++) {
+            String eventType = type(types, i);
+            DatumFunction<Void> listener = listener(listeners, eventType);
+            if (onCanvas) {
+                listenCanvas(eventType, listener);
+            } else {
+                listenCanvas(eventType, null);
+                container.selectAll(tagName).on(eventType, listener);
+            }
+        }
+    }
+
+    private static final native int length(JavaScriptObject array)/*-{
+		return array.length;
+    }-*/;
+
+    private static final native void setListener(JavaScriptObject listeners, String eventType,
+            DatumFunction<Void> listener)/*-{
+		listeners[eventType] = listener;
+    }-*/;
+
+    private static final native DatumFunction<Void> listener(JavaScriptObject listeners, String eventType)/*-{
+		return listeners[eventType];
+    }-*/;
+
+    private static final native JavaScriptObject types(JavaScriptObject listeners)/*-{
+		return Object.keys(listeners);
+    }-*/;
+
+    private static final native String type(JavaScriptObject types, int i)/*-{
+		return types[i];
+    }-*/;
+
+    private static final native JavaScriptObject quadtree(JavaScriptObject data, DatumFunction<Double> x,
+            DatumFunction<Double> y)/*-{
+		var n = data.length, xs = new Float64Array(n), ys = new Float64Array(n), indexes = new Array(n);
+		for (var i = 0; i < n; i++) {
+			var d = data[i];
+			xs[i] = typeof x == 'function' ? +x(d, i) : x.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(null,{datum:d},i).@java.lang.Double::doubleValue()();
+			ys[i] = typeof y == 'function' ? +y(d, i) : y.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(null,{datum:d},i).@java.lang.Double::doubleValue()();
+			indexes[i] = i;
+		}
+		var root = $wnd.d3.geom.quadtree().x(function(i) {
+			return xs[i];
+		}).y(function(i) {
+			return ys[i];
+		})(indexes);
+		root.xs = xs;
+		root.ys = ys;
+		return root;
+    }-*/;
+
+    private static final native int find(JavaScriptObject root, double px, double py, double radius)/*-{
+		var i = root.find([ px, py ]);
+		if (i == null) {
+			return -1;
+		}
+		var dx = root.xs[i] - px, dy = root.ys[i] - py;
+		return dx * dx + dy * dy <= radius * radius ? i : -1;
+    }-*/;
+}
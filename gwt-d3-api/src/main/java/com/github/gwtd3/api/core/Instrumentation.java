@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.core;
+
+import com.github.gwtd3.api.D3;
+import com.github.gwtd3.api.arrays.Array;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Counts and times the DOM operations performed by the {@link Selection}s and {@link Transition}s.
+ * <p>
+ * The instrumentation is selected by the <code>d3.instrumentation</code> deferred-binding property: by default, the
+ * instance returned by {@link #get()} does nothing and is pruned by the compiler, so it has no cost. When the
+ * property is set to true in the module of the application:
+ *
+ * <pre>
+ * {@code
+ * <set-property name="d3.instrumentation" value="true" />
+ * }
+ * </pre>
+ *
+ * the methods of the d3 selection, enter selection and transition prototypes are wrapped when the {@link D3} class is
+ * initialized, recording for each operation the number of calls and the time spent in milliseconds:
+ * <ul>
+ * <li><code>select</code>, <code>selectAll</code>, including {@link D3#select(String)} and
+ * {@link D3#selectAll(String)},
+ * <li><code>data</code>, <code>append</code>, <code>insert</code> and <code>remove</code>,
+ * <li>the writes of <code>attr</code>, <code>style</code>, <code>property</code>, <code>text</code> and
+ * <code>html</code>,
+ * <li>the same operations on transitions, prefixed by <code>transition.</code>,
+ * <li><code>callback</code>: the invocations of the functions passed to the operations above, which include all the
+ * Java callbacks such as {@link com.github.gwtd3.api.functions.DatumFunction}s.
+ * </ul>
+ * An operation called by another one, like the <code>select</code> performed by d3 in <code>append</code>, is
+ * recorded as part of the outer one only. The time of an operation includes the time of its callbacks.
+ *
+ * <pre>
+ * {@code
+ * Instrumentation.get().reset();
+ * redraw();
+ * Instrumentation.Snapshot snapshot = Instrumentation.get().snapshot();
+ * GWT.log(snapshot.count("attr") + " attr writes in " + snapshot.time("attr") + "ms");
+ * }
+ * </pre>
+ */
+public class Instrumentation {
+
+    private static final Instrumentation INSTANCE = GWT.create(Instrumentation.class);
+
+    /**
+     * @return the instrumentation selected by the <code>d3.instrumentation</code> deferred-binding property
+     */
+    public static Instrumentation get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return true if the operations are recorded, false if the instrumentation is disabled
+     */
+    public boolean isEnabled() {
+        return false;
+    }
+
+    /**
+     * Returns a copy of the counters recorded since the last {@link #reset()}. The snapshot is empty when the
+     * instrumentation is disabled.
+     *
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        return JavaScriptObject.createObject().cast();
+    }
+
+    /**
+     * Resets all the counters.
+     */
+    public void reset() {
+    }
+
+    /**
+     * The counters recorded by the instrumentation at a given time.
+     */
+    public static class Snapshot extends JavaScriptObject {
+
+        protected Snapshot() {
+        }
+
+        /**
+         * @return the names of the operations recorded at least once
+         */
+        public final native Array<String> operations() /*-{
+			return Object.keys(this);
+        }-*/;
+
+        /**
+         * @param operation
+         *            the name of the operation
+         * @return the number of calls of the operation
+         */
+        public final native int count(String operation) /*-{
+			return this[operation] ? this[operation].count : 0;
+        }-*/;
+
+        /**
+         * @param operation
+         *            the name of the operation
+         * @return the total time spent in the operation, in milliseconds
+         */
+        public final native double time(String operation) /*-{
+			return this[operation] ? this[operation].time : 0;
+        }-*/;
+
+        /**
+         * @return the counters as a string, one operation per line, for logging
+         */
+        public final native String format() /*-{
+			var lines = [];
+			for ( var op in this) {
+				lines.push(op + ': ' + this[op].count + ' calls, ' + this[op].time.toFixed(3) + 'ms');
+			}
+			return lines.join('\n');
+        }-*/;
+    }
+}
@@ -0,0 +1,292 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.core;
+
+import com.github.gwtd3.api.functions.IndexedKeyFunction;
+import com.github.gwtd3.api.functions.KeyFunction;
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * The index of the elements of a keyed join by key, kept on the parent node of the joined elements between the
+ * updates, for each selector and key function. The index is dropped when the elements are joined by
+ * {@link Selection#data(JavaScriptObject)} and its variants.
+ * <p>
+ * See {@link Selection#dataDelta(JavaScriptObject, JavaScriptObject, JavaScriptObject, KeyFunction)}, and
+ * {@link IndexedKeyFunction} for the key cache used by {@link Selection#data(JavaScriptObject, KeyFunction)}.
+ */
+final class KeyIndex {
+
+    private KeyIndex() {
+    }
+
+    /**
+     * Returns the entry stored in the given property of the given parent node for the given selector and key function,
+     * creating it if it does not exist yet.
+     *
+     * @param parent
+     *            the parent node
+     * @param property
+     *            the property of the parent node holding the entries
+     * @param selector
+     *            the selector of the joined elements, or an empty string if unknown
+     * @param keyFunction
+     *            the key function
+     * @return the entry
+     */
+    static native JavaScriptObject entry(JavaScriptObject parent, String property, String selector,
+            Object keyFunction)/*-{
+		var entries = parent[property] || (parent[property] = []);
+		for (var i = 0, n = entries.length; i < n; i++) {
+			if (entries[i].selector === selector && entries[i].keyFunction === keyFunction) {
+				return entries[i];
+			}
+		}
+		var entry = {
+			selector : selector,
+			keyFunction : keyFunction
+		};
+		entries.push(entry);
+		return entry;
+    }-*/;
+
+    /**
+     * Drops the indexes of the elements of the given selection, which are joined by other means than
+     * {@link Selection#dataDelta(JavaScriptObject, JavaScriptObject, JavaScriptObject, KeyFunction)}. They are rebuilt
+     * on the next delta.
+     * <p>
+     * The indexes built for the same selector under the same parent nodes are dropped, or all of them if the selector
+     * of the selection is unknown.
+     *
+     * @param selection
+     *            the selection being joined
+     */
+    static native void invalidate(Selection selection)/*-{
+		var selector = selection.__gwtd3_selector__;
+		for (var j = 0, m = selection.length; j < m; j++) {
+			var parent = selection[j].parentNode, entries = parent && parent.__gwtd3_keys__;
+			if (!entries) {
+				continue;
+			}
+			if (!selector) {
+				delete parent.__gwtd3_keys__;
+				continue;
+			}
+			for (var i = entries.length - 1; i >= 0; i--) {
+				// the entries of unknown selectors may index the same elements
+				if (!entries[i].selector || entries[i].selector === selector) {
+					entries.splice(i, 1);
+				}
+			}
+		}
+    }-*/;
+
+    /**
+     * Returns the index of the elements of the given group, building it if it does not exist yet, and registering the
+     * elements appended to the entering selection of the last delta.
+     * <p>
+     * The index is kept on the parent node by selector and key function, so that the child selections of a parent node
+     * have their own indexes.
+     *
+     * @param group
+     *            the group of elements
+     * @param selector
+     *            the selector of the elements, or an empty string if unknown
+     * @param keyFunction
+     *            the key function
+     * @return the index
+     */
+    static native JavaScriptObject of(JavaScriptObject group, String selector, KeyFunction<?> keyFunction)/*-{
+		var index = @com.github.gwtd3.api.core.KeyIndex::entry(Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;Ljava/lang/String;Ljava/lang/Object;)(group.parentNode, '__gwtd3_keys__', selector, keyFunction);
+		if (!index.nodes) {
+			index.nodes = $wnd.d3.map();
+			for (var i = 0, n = group.length; i < n; i++) {
+				var node = group[i];
+				if (node) {
+					index.nodes
+							.set(
+									keyFunction.@com.github.gwtd3.api.functions.KeyFunction::map(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/arrays/Array;Lcom/github/gwtd3/api/core/Value;I)(node,null,{datum:node.__data__},i),
+									node);
+				}
+			}
+		} else if (index.pending) {
+			var pending = index.pending;
+			for (var i = 0, n = pending.keys.length; i < n; i++) {
+				var node = pending.group[pending.positions[i]];
+				if (node) {
+					index.nodes.set(pending.keys[i], node);
+				}
+			}
+		}
+		index.pending = null;
+		return index;
+    }-*/;
+
+    /**
+     * Tells whether an index can be kept for the given selection, that is whether it has a single group with a parent
+     * node.
+     *
+     * @param selection
+     *            the selection
+     * @return true if the selection can be indexed
+     */
+    static native boolean isIndexable(Selection selection)/*-{
+		return selection.length == 1 && !!selection[0].parentNode;
+    }-*/;
+
+    /**
+     * Applies the given changes to the single group of the given selection.
+     *
+     * @return the update selection
+     */
+    static native UpdateSelection delta(Selection selection, JavaScriptObject insert, JavaScriptObject update,
+            JavaScriptObject remove, KeyFunction<?> keyFunction)/*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutated()();
+		var group = selection[0], parent = group.parentNode;
+		var index = @com.github.gwtd3.api.core.KeyIndex::of(Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;Lcom/github/gwtd3/api/functions/KeyFunction;)(group, selection.__gwtd3_selector__ || '', keyFunction);
+		var nodes = index.nodes;
+		var updateGroup = [], enterGroup = [], exitGroup = [], pending = {
+			keys : [],
+			positions : [],
+			group : updateGroup
+		};
+		updateGroup.parentNode = enterGroup.parentNode = exitGroup.parentNode = parent;
+		enterGroup.update = updateGroup;
+
+		function key(array, d, i) {
+			return keyFunction.@com.github.gwtd3.api.functions.KeyFunction::map(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/arrays/Array;Lcom/github/gwtd3/api/core/Value;I)(null,array,{datum:d},i);
+		}
+		function lookup(k) {
+			var node = nodes.get(k);
+			// ignore the elements removed by other means; the elements of a document-wide selection are not children
+			// of the parent of the group
+			return node && node.parentNode ? node : null;
+		}
+		function join(array) {
+			for (var i = 0, n = array ? array.length : 0; i < n; i++) {
+				var d = array[i], k = key(array, d, i), node = lookup(k), j = updateGroup.length;
+				if (node) {
+					node.__data__ = d;
+					updateGroup[j] = node;
+					enterGroup[j] = null;
+				} else {
+					updateGroup[j] = null;
+					enterGroup[j] = {
+						__data__ : d
+					};
+					pending.keys.push(k);
+					pending.positions.push(j);
+				}
+			}
+		}
+		join(update);
+		join(insert);
+		for (var i = 0, n = remove ? remove.length : 0; i < n; i++) {
+			var k = key(remove, remove[i], i), node = lookup(k);
+			if (node) {
+				nodes.remove(k);
+				exitGroup.push(node);
+			}
+		}
+		index.pending = pending;
+
+		var updateSelection = [ updateGroup ], enterSelection = [ enterGroup ], exitSelection = [ exitGroup ];
+		updateSelection.__proto__ = exitSelection.__proto__ = $wnd.d3.selection.prototype;
+		enterSelection.__proto__ = $wnd.d3.selection.enter.prototype;
+		updateSelection.enter = function() {
+			return enterSelection;
+		};
+		updateSelection.exit = function() {
+			return exitSelection;
+		};
+		return updateSelection;
+    }-*/;
+
+    /**
+     * Tells whether the given key function allows to cache the keys.
+     *
+     * @param keyFunction
+     *            the key function
+     * @return true if the given function is an {@link IndexedKeyFunction}
+     */
+    static boolean isIndexed(final Object keyFunction) {
+        return keyFunction instanceof IndexedKeyFunction;
+    }
+
+    /**
+     * Joins the given array with the given selection, using the keys cached on the elements and the keys of the data of
+     * the previous join made with the given function under the same parent node. The keys of the data are kept on the
+     * parent node of each group, by selector and key function.
+     *
+     * @return the update selection
+     */
+    static native UpdateSelection data(Selection selection, JavaScriptObject array, KeyFunction<?> keyFunction)/*-{
+		var Map = $wnd.Map, selector = selection.__gwtd3_selector__ || '', previous = null, next = null;
+		function key(context, d, i) {
+			if (previous && previous.has(d)) {
+				return previous.get(d);
+			}
+			return keyFunction.@com.github.gwtd3.api.functions.KeyFunction::map(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/arrays/Array;Lcom/github/gwtd3/api/core/Value;I)(context, context ? null : array, {datum:d}, i);
+		}
+		// called with each group before its elements and data are keyed
+		function values() {
+			var parent = this.parentNode;
+			if (parent) {
+				var entry = @com.github.gwtd3.api.core.KeyIndex::entry(Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;Ljava/lang/String;Ljava/lang/Object;)(parent, '__gwtd3_datum_keys__', selector, keyFunction);
+				previous = entry.keys;
+				// only remember the keys of the current data
+				next = entry.keys = Map ? new Map() : null;
+			} else {
+				previous = next = null;
+			}
+			return array;
+		}
+		var update = selection.data(values, function(d, i) {
+			var k;
+			if (this == array) {
+				k = key(null, d, i);
+				if (next) {
+					next.set(d, k);
+				}
+			} else if (this.__gwtd3_keyed__ === d && this.__gwtd3_key_function__ === keyFunction) {
+				k = this.__gwtd3_key__;
+			} else {
+				k = key(this, d, i);
+				this.__gwtd3_keyed__ = d;
+				this.__gwtd3_key_function__ = keyFunction;
+				this.__gwtd3_key__ = k;
+			}
+			return k;
+		});
+		// the updated elements keep their key with their new datum
+		update.each(function(d) {
+			this.__gwtd3_keyed__ = d;
+		});
+		return update;
+    }-*/;
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.core;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * A pool of detached DOM elements, grouped by tag name, to recycle the elements of the exiting selections for the
+ * entering data.
+ * <p>
+ * Elements are put into the pool by {@link Selection#remove(NodePool)} and taken from it by
+ * {@link EnteringSelection#append(String, NodePool)}, which only creates new elements when the pool has none of the
+ * requested tag name. A recycled element keeps its previous attributes, styles, classes, listeners and children: only
+ * its data is replaced, so the update applied to the entering elements must set every attribute that depends on the
+ * data. Pending transitions of the recycled elements are interrupted, and the state kept on the elements by this
+ * library, such as the marks of delegated events, the cached keys and the values recorded by the change detection, is
+ * dropped when they enter the pool.
+ * <p>
+ * For enter/exit-heavy animations, the number of elements created at steady state is then close to zero, see
+ * {@link #created()} and {@link #reused()}.
+ */
+public class NodePool extends JavaScriptObject {
+
+    protected NodePool() {
+        super();
+    }
+
+    /**
+     * Create a pool keeping at most the given number of elements per tag name; the elements removed when the pool is
+     * full are discarded.
+     *
+     * @param capacity
+     *            the maximum number of elements per tag name
+     * @return the pool
+     */
+    public static final native NodePool create(int capacity)/*-{
+		return {
+			capacity : capacity,
+			nodes : {},
+			created : 0,
+			reused : 0
+		};
+    }-*/;
+
+    /**
+     * Create a pool without capacity limit.
+     *
+     * @return the pool
+     */
+    public static final NodePool create() {
+        return create(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return the number of elements created by {@link EnteringSelection#append(String, NodePool)} because the pool
+     *         was empty
+     */
+    public final native int created()/*-{
+		return this.created;
+    }-*/;
+
+    /**
+     * @return the number of elements taken from the pool by {@link EnteringSelection#append(String, NodePool)}
+     */
+    public final native int reused()/*-{
+		return this.reused;
+    }-*/;
+
+    /**
+     * Returns the number of elements with the given tag name available in the pool.
+     *
+     * @param tagName
+     *            the tag name, such as circle or svg:circle
+     * @return the number of elements
+     */
+    public final native int size(String tagName)/*-{
+		var q = $wnd.d3.ns.qualify(tagName), nodes = this.nodes[q.local || q];
+		return nodes ? nodes.length : 0;
+    }-*/;
+
+    /**
+     * Discard all the elements of the pool and reset the counters.
+     *
+     * @return the pool
+     */
+    public final native NodePool clear()/*-{
+		this.nodes = {};
+		this.created = this.reused = 0;
+		return this;
+    }-*/;
+
+    /**
+     * Detach the given element from the document and put it into the pool.
+     *
+     * @param node
+     *            the element
+     */
+    final native void put(JavaScriptObject node)/*-{
+		if (node.__transition__) {
+			$wnd.d3.select(node).interrupt();
+		}
+		var parent = node.parentNode;
+		if (parent) {
+			parent.removeChild(node);
+			@com.github.gwtd3.api.core.SelectionCache::mutated()();
+		}
+		var nodes = this.nodes[node.localName] || (this.nodes[node.localName] = []);
+		if (nodes.length < this.capacity) {
+			// the expandos are own properties, unlike the properties of the DOM
+			var keys = Object.keys(node);
+			for (var i = 0, n = keys.length; i < n; i++) {
+				if (keys[i].lastIndexOf('__gwtd3_', 0) === 0) {
+					delete node[keys[i]];
+				}
+			}
+			delete node.__data__;
+			nodes.push(node);
+		}
+    }-*/;
+
+    /**
+     * Returns a function taking an element from the pool, or creating a new one, to be passed to d3's append operator.
+     *
+     * @param name
+     *            the name of the element, with an optional namespace prefix
+     * @return the function
+     */
+    final native JavaScriptObject taker(String name)/*-{
+		var pool = this, q = $wnd.d3.ns.qualify(name), nodes = pool.nodes[q.local || q];
+		var create = @com.github.gwtd3.api.core.EnteringSelection::creator(Ljava/lang/String;)(name);
+		return function() {
+			if (nodes && nodes.length) {
+				pool.reused++;
+				return nodes.pop();
+			}
+			pool.created++;
+			return create.call(this);
+		};
+    }-*/;
+}
@@ -0,0 +1,345 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.core;
+
+import com.github.gwtd3.api.D3;
+import com.github.gwtd3.api.functions.BooleanDatumFunction;
+import com.github.gwtd3.api.functions.KeyFunction;
+import com.github.gwtd3.api.functions.SelectionFunction;
+import com.github.gwtd3.api.functions.TimerFunction;
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Appends the elements of an {@link EnteringSelection} progressively, in chunks limited by a time budget per animation
+ * frame, so that entering a very large number of elements does not freeze the page.
+ * <p>
+ * Instances are created by {@link EnteringSelection#progressiveAppend(String)}, configured, and then started with
+ * {@link #start()}. The rendering is driven by {@link D3#timer(TimerFunction)}: on each frame, elements are created,
+ * initialized by the {@link #init(SelectionFunction) init function} while still detached, and attached to their
+ * parent, until the budget is spent. The {@link Listener} is notified after each frame and at the end.
+ * <p>
+ * The elements for which the {@link #first(BooleanDatumFunction) first function} returns true, typically the ones
+ * visible in the viewport, are rendered before the others, and the elements are re-ordered to match the data once the
+ * rendering completes; the elements are otherwise appended in the order of the data. A new join on the same parent
+ * elements, with {@link Selection#data(JavaScriptObject)} and its variants or with
+ * {@link Selection#dataDelta(JavaScriptObject, JavaScriptObject, JavaScriptObject, KeyFunction)},
+ * cancels the rendering in progress, as does starting a new progressive rendering; the elements already appended
+ * remain.
+ */
+public class ProgressiveRendering {
+
+    /**
+     * Receives the progress of a {@link ProgressiveRendering}.
+     */
+    public interface Listener {
+        /**
+         * Called after each frame.
+         *
+         * @param rendered
+         *            the number of elements appended so far
+         * @param total
+         *            the total number of elements to append
+         */
+        void onProgress(int rendered, int total);
+
+        /**
+         * Called once all the elements are appended; not called if the rendering is cancelled.
+         */
+        void onComplete();
+    }
+
+    private final EnteringSelection selection;
+
+    private final String name;
+
+    private int budget = 8;
+
+    private SelectionFunction init;
+
+    private BooleanDatumFunction first;
+
+    private Listener listener;
+
+    private JavaScriptObject state;
+
+    ProgressiveRendering(final EnteringSelection selection, final String name) {
+        this.selection = selection;
+        this.name = name;
+    }
+
+    /**
+     * Sets the time spent appending elements in each animation frame, 8 milliseconds by default.
+     *
+     * @param budgetMillis
+     *            the budget in milliseconds
+     * @return this rendering
+     */
+    public ProgressiveRendering budget(final int budgetMillis) {
+        this.budget = budgetMillis;
+        return this;
+    }
+
+    /**
+     * Sets the function initializing each chunk of new elements, before they are attached to the document.
+     * <p>
+     * The selection passed to the function only contains the elements of the chunk, and the index passed to its
+     * operators is the position of the element in the chunk: the function should only depend on the data.
+     *
+     * @param init
+     *            the function
+     * @return this rendering
+     */
+    public ProgressiveRendering init(final SelectionFunction init) {
+        this.init = init;
+        return this;
+    }
+
+    /**
+     * Sets the function selecting the data to render first, such as the ones visible in the viewport.
+     *
+     * @param first
+     *            the function, called once for each datum with a null element before the rendering starts
+     * @return this rendering
+     */
+    public ProgressiveRendering first(final BooleanDatumFunction first) {
+        this.first = first;
+        return this;
+    }
+
+    /**
+     * Sets the listener notified of the progress of the rendering.
+     *
+     * @param listener
+     *            the listener
+     * @return this rendering
+     */
+    public ProgressiveRendering listener(final Listener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Starts the rendering on the next animation frame, cancelling any progressive rendering in progress on the same
+     * parent elements.
+     *
+     * @return this rendering
+     */
+    public ProgressiveRendering start() {
+        state = prepare(selection, name, first);
+        D3.timer(new TimerFunction() {
+            @Override
+            public boolean execute() {
+                if (isCancelled()) {
+                    return true;
+                }
+                boolean done = step(state, budget, init);
+                if (listener != null) {
+                    listener.onProgress(rendered(), total());
+                    if (done) {
+                        listener.onComplete();
+                    }
+                }
+                return done;
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Stops the rendering; the elements already appended remain.
+     *
+     * @return this rendering
+     */
+    public ProgressiveRendering cancel() {
+        if (state != null) {
+            cancel(state);
+        }
+        return this;
+    }
+
+    /**
+     * @return true if the rendering was cancelled
+     */
+    public boolean isCancelled() {
+        return state != null && isCancelled(state);
+    }
+
+    /**
+     * @return the number of elements appended so far
+     */
+    public int rendered() {
+        return state == null ? 0 : rendered(state);
+    }
+
+    /**
+     * @return the total number of elements to append
+     */
+    public int total() {
+        return state == null ? 0 : total(state);
+    }
+
+    /**
+     * @return true if all the elements are appended
+     */
+    public boolean isComplete() {
+        return state != null && rendered(state) == total(state);
+    }
+
+    private static final native JavaScriptObject prepare(EnteringSelection selection, String name,
+            BooleanDatumFunction first)/*-{
+		var state = {
+			groups : selection,
+			create : @com.github.gwtd3.api.core.EnteringSelection::creator(Ljava/lang/String;)(name),
+			js : [],
+			is : [],
+			nodes : [],
+			reorder : !!first,
+			next : 0,
+			cancelled : false
+		}, later = {
+			js : [],
+			is : []
+		};
+		for (var j = 0, m = selection.length; j < m; j++) {
+			var group = selection[j], parent = group.parentNode, previous = parent.__gwtd3_progressive__;
+			if (previous) {
+				previous.cancelled = true;
+			}
+			parent.__gwtd3_progressive__ = state;
+			state.nodes[j] = [];
+			for (var i = 0, n = group.length; i < n; i++) {
+				var node = group[i];
+				if (!node) {
+					continue;
+				}
+				var target = !first
+						|| first.@com.github.gwtd3.api.functions.BooleanDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(null,{datum:node.__data__},i) ? state
+						: later;
+				target.js.push(j);
+				target.is.push(i);
+			}
+		}
+		state.js = state.js.concat(later.js);
+		state.is = state.is.concat(later.is);
+		return state;
+    }-*/;
+
+    private static final native boolean step(JavaScriptObject state, int budget, SelectionFunction init)/*-{
+		var start = Date.now(), groups = state.groups, total = state.js.length;
+		while (state.next < total && Date.now() - start < budget) {
+			// one chunk: one subgroup and one fragment per parent
+			var end = Math.min(total, state.next + 256), subgroups = [], fragments = [], byGroup = {};
+			for (var k = state.next; k < end; k++) {
+				var j = state.js[k], i = state.is[k], group = groups[j], parent = group.parentNode;
+				var g = byGroup[j];
+				if (g === undefined) {
+					var subgroup = [];
+					subgroup.parentNode = parent;
+					g = byGroup[j] = subgroups.push(subgroup) - 1;
+					fragments.push(parent.ownerDocument.createDocumentFragment());
+				}
+				var node = state.create.call(parent);
+				node.__data__ = group[i].__data__;
+				state.nodes[j][i] = node;
+				if (group.update) {
+					group.update[i] = node;
+				}
+				subgroups[g].push(node);
+				fragments[g].appendChild(node);
+			}
+			subgroups.__proto__ = $wnd.d3.selection.prototype;
+			if (init) {
+				init.@com.github.gwtd3.api.functions.SelectionFunction::apply(Lcom/github/gwtd3/api/core/Selection;)(subgroups);
+			}
+			for (var f = 0; f < subgroups.length; f++) {
+				subgroups[f].parentNode.appendChild(fragments[f]);
+			}
+			@com.github.gwtd3.api.core.SelectionCache::mutated()();
+			state.next = end;
+		}
+		if (state.next < total) {
+			return false;
+		}
+		// restore the order of the data, with the elements of the update selection if any
+		var ordered = [];
+		for (var j = 0, m = groups.length; j < m; j++) {
+			var parent = groups[j].parentNode;
+			if (parent.__gwtd3_progressive__ === state) {
+				delete parent.__gwtd3_progressive__;
+			}
+			ordered.push(groups[j].update || state.nodes[j]);
+		}
+		if (state.reorder) {
+			ordered.__proto__ = $wnd.d3.selection.prototype;
+			ordered.order();
+			@com.github.gwtd3.api.core.SelectionCache::mutated()();
+		}
+		return true;
+    }-*/;
+
+    /**
+     * Cancels the progressive renderings in progress on the parent nodes of the given selection, when it is joined with
+     * new data.
+     *
+     * @param selection
+     *            the selection being joined
+     */
+    static native void cancelOn(Selection selection)/*-{
+		for (var j = 0, m = selection.length; j < m; j++) {
+			var parent = selection[j].parentNode, state = parent && parent.__gwtd3_progressive__;
+			if (state) {
+				state.cancelled = true;
+				delete parent.__gwtd3_progressive__;
+			}
+		}
+    }-*/;
+
+    private static final native void cancel(JavaScriptObject state)/*-{
+		state.cancelled = true;
+		// the parent nodes no longer see the rendering as in progress, nor hold it
+		for (var j = 0, m = state.groups.length; j < m; j++) {
+			var parent = state.groups[j].parentNode;
+			if (parent && parent.__gwtd3_progressive__ === state) {
+				delete parent.__gwtd3_progressive__;
+			}
+		}
+    }-*/;
+
+    private static final native boolean isCancelled(JavaScriptObject state)/*-{
+		return state.cancelled;
+    }-*/;
+
+    private static final native int rendered(JavaScriptObject state)/*-{
+		return state.next;
+    }-*/;
+
+    private static final native int total(JavaScriptObject state)/*-{
+		return state.js.length;
+    }-*/;
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.core;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * The {@link Instrumentation} used when the <code>d3.instrumentation</code> deferred-binding property is true, wrapping
+ * the methods of the d3 prototypes to record the operations.
+ */
+class RecordingInstrumentation extends Instrumentation {
+
+    private final JavaScriptObject stats = JavaScriptObject.createObject();
+
+    public RecordingInstrumentation() {
+        install(stats);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public Instrumentation.Snapshot snapshot() {
+        return copy(stats);
+    }
+
+    @Override
+    public native void reset() /*-{
+		var stats = this.@com.github.gwtd3.api.core.RecordingInstrumentation::stats;
+		for ( var op in stats) {
+			delete stats[op];
+		}
+    }-*/;
+
+    private static native Instrumentation.Snapshot copy(JavaScriptObject stats) /*-{
+		var snapshot = {};
+		for ( var op in stats) {
+			snapshot[op] = {
+				count : stats[op].count,
+				time : stats[op].time
+			};
+		}
+		return snapshot;
+    }-*/;
+
+    private static native void install(JavaScriptObject stats) /*-{
+		var d3 = $wnd.d3, depth = 0;
+		var now = $wnd.performance && $wnd.performance.now ? function() {
+			return $wnd.performance.now();
+		} : Date.now;
+		function record(op, time) {
+			var s = stats[op] || (stats[op] = {
+				count : 0,
+				time : 0
+			});
+			s.count++;
+			s.time += time;
+		}
+		function callback(f) {
+			return typeof f != 'function' ? f : function() {
+				var t0 = now();
+				try {
+					return f.apply(this, arguments);
+				} finally {
+					record('callback', now() - t0);
+				}
+			};
+		}
+		function wrap(target, name, op, arity) {
+			var method = target[name];
+			if (typeof method != 'function' || method.__gwtd3_instrumented__) {
+				return;
+			}
+			var wrapper = function() {
+				if (depth > 0 || (arguments.length < arity && typeof arguments[0] != 'object')) {
+					return method.apply(this, arguments);
+				}
+				var args = Array.prototype.slice.call(arguments);
+				for (var i = 0; i < args.length; i++) {
+					args[i] = callback(args[i]);
+				}
+				var t0 = now();
+				depth++;
+				try {
+					return method.apply(this, args);
+				} finally {
+					depth--;
+					record(op, now() - t0);
+				}
+			};
+			wrapper.__gwtd3_instrumented__ = true;
+			target[name] = wrapper;
+		}
+		var operations = [ 'select', 'selectAll', 'data', 'append', 'insert', 'remove' ];
+		var writes = {
+			attr : 2,
+			style : 2,
+			property : 2,
+			text : 1,
+			html : 1
+		};
+		var prototypes = [ d3.selection.prototype, d3.selection.enter.prototype ];
+		for (var p = 0; p < prototypes.length; p++) {
+			for (var i = 0; i < operations.length; i++) {
+				wrap(prototypes[p], operations[i], operations[i], 0);
+			}
+			for ( var name in writes) {
+				wrap(prototypes[p], name, name, writes[name]);
+			}
+		}
+		var transition = d3.transition.prototype;
+		wrap(transition, 'select', 'transition.select', 0);
+		wrap(transition, 'selectAll', 'transition.selectAll', 0);
+		wrap(transition, 'remove', 'transition.remove', 0);
+		wrap(transition, 'attr', 'transition.attr', 2);
+		wrap(transition, 'style', 'transition.style', 2);
+		wrap(transition, 'text', 'transition.text', 1);
+		wrap(d3, 'select', 'select', 0);
+		wrap(d3, 'selectAll', 'selectAll', 0);
+    }-*/;
+}
@@ -0,0 +1,344 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.core;
+
+import com.github.gwtd3.api.ease.Easing;
+import com.github.gwtd3.api.ease.EasingFunction;
+import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.DoubleDatumFunction;
+import com.github.gwtd3.api.functions.SelectionFunction;
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * A transition run by a {@link TransitionScheduler}.
+ * <p>
+ * A scheduled transition supports the most common operators of {@link Transition}: the tweens of attributes and
+ * styles, the delay, duration and easing, the removal of the elements and a listener of the end. The delay and the
+ * duration are the same for all the elements. The start and end values are resolved once per element when the
+ * transition starts; the Java functions are thus never called during the animation frames.
+ * <p>
+ * If a newer scheduled transition starts on an element, the older one stops updating it.
+ */
+public class ScheduledTransition {
+
+    private final JavaScriptObject job;
+
+    ScheduledTransition(final JavaScriptObject job) {
+        this.job = job;
+    }
+
+    /**
+     * Sets the delay before the transition starts, in milliseconds. The default delay is 0.
+     *
+     * @param milliseconds
+     *            the delay
+     * @return this transition
+     */
+    public native ScheduledTransition delay(double milliseconds)/*-{
+		this.@com.github.gwtd3.api.core.ScheduledTransition::job.delay = milliseconds;
+		return this;
+    }-*/;
+
+    /**
+     * Sets the duration of the transition, in milliseconds. The default duration is 250 milliseconds.
+     *
+     * @param milliseconds
+     *            the duration
+     * @return this transition
+     */
+    public native ScheduledTransition duration(double milliseconds)/*-{
+		this.@com.github.gwtd3.api.core.ScheduledTransition::job.duration = milliseconds;
+		return this;
+    }-*/;
+
+    /**
+     * Sets the easing function. The default easing is cubic-in-out.
+     * <p>
+     * The functions returned by {@link Easing} are called directly, the other ones are called through Java once per
+     * frame.
+     *
+     * @param easing
+     *            the easing function
+     * @return this transition
+     */
+    public native ScheduledTransition ease(EasingFunction easing)/*-{
+		this.@com.github.gwtd3.api.core.ScheduledTransition::job.ease = typeof easing == 'function' ? easing : function(t) {
+			return easing.@com.github.gwtd3.api.ease.EasingFunction::ease(D)(t);
+		};
+		return this;
+    }-*/;
+
+    /**
+     * Transition the attribute with the given name from its current value to the given value, using the same
+     * interpolator as {@link Transition#attr(String, String)}. As with d3, a null value removes the attribute when the
+     * transition starts.
+     *
+     * @param name
+     *            the name of the attribute
+     * @param value
+     *            the end value
+     * @return this transition
+     */
+    public ScheduledTransition attr(final String name, final String value) {
+        return tween("attr." + name, attrTween(name, value));
+    }
+
+    /**
+     * Same as {@link #attr(String, String)} with a numeric end value.
+     *
+     * @param name
+     *            the name of the attribute
+     * @param value
+     *            the end value
+     * @return this transition
+     */
+    public ScheduledTransition attr(final String name, final double value) {
+        return tween("attr." + name, attrTween(name, value));
+    }
+
+    /**
+     * Same as {@link #attr(String, String)}, computing the end value of each element with the given function when the
+     * transition starts.
+     *
+     * @param name
+     *            the name of the attribute
+     * @param callback
+     *            the function computing the end value
+     * @return this transition
+     */
+    public ScheduledTransition attr(final String name, final DatumFunction<?> callback) {
+        return tween("attr." + name, attrTween(name, function(callback)));
+    }
+
+    /**
+     * Transition the attribute with the given name to the number returned by the given function for each element,
+     * evaluated when the transition starts.
+     *
+     * @param name
+     *            the name of the attribute
+     * @param callback
+     *            the function computing the end value
+     * @return this transition
+     */
+    public ScheduledTransition attrDouble(final String name, final DoubleDatumFunction callback) {
+        return tween("attr." + name, attrTween(name, function(callback)));
+    }
+
+    /**
+     * Transition the style property with the given name from its current computed value to the given value. As with
+     * d3, a null value removes the style property when the transition starts.
+     *
+     * @param name
+     *            the name of the style property
+     * @param value
+     *            the end value
+     * @return this transition
+     */
+    public ScheduledTransition style(final String name, final String value) {
+        return tween("style." + name, styleTween(name, value));
+    }
+
+    /**
+     * Same as {@link #style(String, String)} with a numeric end value.
+     *
+     * @param name
+     *            the name of the style property
+     * @param value
+     *            the end value
+     * @return this transition
+     */
+    public ScheduledTransition style(final String name, final double value) {
+        return tween("style." + name, styleTween(name, value));
+    }
+
+    /**
+     * Same as {@link #style(String, String)}, computing the end value of each element with the given function when
+     * the transition starts.
+     *
+     * @param name
+     *            the name of the style property
+     * @param callback
+     *            the function computing the end value
+     * @return this transition
+     */
+    public ScheduledTransition style(final String name, final DatumFunction<?> callback) {
+        return tween("style." + name, styleTween(name, function(callback)));
+    }
+
+    /**
+     * Transition the style property with the given name to the number returned by the given function for each
+     * element, evaluated when the transition starts.
+     *
+     * @param name
+     *            the name of the style property
+     * @param callback
+     *            the function computing the end value
+     * @return this transition
+     */
+    public ScheduledTransition styleDouble(final String name, final DoubleDatumFunction callback) {
+        return tween("style." + name, styleTween(name, function(callback)));
+    }
+
+    /**
+     * Registers a custom tween with the given name, replacing the previous tween with the same name.
+     * <p>
+     * The factory is a Javascript function invoked once per element when the transition starts, with the element as
+     * this context and the datum and the index as arguments, as for d3's <code>transition.tween</code>. It returns
+     * null, or a function invoked on each frame with the element as this context and the eased time as argument.
+     *
+     * @param name
+     *            the name of the tween
+     * @param factory
+     *            the Javascript tween factory
+     * @return this transition
+     */
+    public native ScheduledTransition tween(String name, JavaScriptObject factory)/*-{
+		var job = this.@com.github.gwtd3.api.core.ScheduledTransition::job, names = job.names || (job.names = {});
+		if (names[name] === undefined) {
+			names[name] = job.tweens.push(factory) - 1;
+		} else {
+			job.tweens[names[name]] = factory;
+		}
+		return this;
+    }-*/;
+
+    /**
+     * Removes the elements from the document at the end of the transition, unless a newer scheduled transition
+     * started on them.
+     *
+     * @return this transition
+     */
+    public native ScheduledTransition remove()/*-{
+		this.@com.github.gwtd3.api.core.ScheduledTransition::job.remove = true;
+		return this;
+    }-*/;
+
+    /**
+     * Registers a function invoked once with the selection of the transition when the transition ends.
+     *
+     * @param listener
+     *            the listener
+     * @return this transition
+     */
+    public native ScheduledTransition onEnd(SelectionFunction listener)/*-{
+		this.@com.github.gwtd3.api.core.ScheduledTransition::job.end.push(function(selection) {
+			listener.@com.github.gwtd3.api.functions.SelectionFunction::apply(Lcom/github/gwtd3/api/core/Selection;)(selection);
+		});
+		return this;
+    }-*/;
+
+    /**
+     * Stops the transition; the elements keep their current state and the end listeners are not invoked.
+     *
+     * @return this transition
+     */
+    public native ScheduledTransition cancel()/*-{
+		this.@com.github.gwtd3.api.core.ScheduledTransition::job.cancelled = true;
+		return this;
+    }-*/;
+
+    /**
+     * @return true if the transition has ended
+     */
+    public native boolean isEnded()/*-{
+		return !!this.@com.github.gwtd3.api.core.ScheduledTransition::job.ended;
+    }-*/;
+
+    /**
+     * @return the selection of the elements of this transition
+     */
+    public native Selection selection()/*-{
+		return this.@com.github.gwtd3.api.core.ScheduledTransition::job.selection;
+    }-*/;
+
+    private static native JavaScriptObject function(DatumFunction<?> callback)/*-{
+		return typeof callback == 'function' ? callback : function(d, i) {
+			return callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+		};
+    }-*/;
+
+    private static native JavaScriptObject function(DoubleDatumFunction callback)/*-{
+		return function(d, i) {
+			return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+		};
+    }-*/;
+
+    /**
+     * Returns a tween factory interpolating the attribute from its current value to the given constant or function
+     * value.
+     */
+    static native JavaScriptObject attrTween(String name, Object value)/*-{
+		var d3 = $wnd.d3, q = d3.ns.qualify(name);
+		var interpolate = name == 'transform' ? d3.interpolateTransform : d3.interpolate;
+		return function(d, i) {
+			var b = typeof value == 'function' ? value.call(this, d, i) : value;
+			if (b == null) {
+				return q.local ? function() {
+					this.removeAttributeNS(q.space, q.local);
+				} : function() {
+					this.removeAttribute(q);
+				};
+			}
+			var a = q.local ? this.getAttributeNS(q.space, q.local) : this.getAttribute(q);
+			if (a === b + '') {
+				return null;
+			}
+			var f = interpolate(a, b);
+			return q.local ? function(e) {
+				this.setAttributeNS(q.space, q.local, f(e));
+			} : function(e) {
+				this.setAttribute(q, f(e));
+			};
+		};
+    }-*/;
+
+    /**
+     * Returns a tween factory interpolating the style property from its current computed value to the given constant
+     * or function value.
+     */
+    static native JavaScriptObject styleTween(String name, Object value)/*-{
+		var d3 = $wnd.d3;
+		return function(d, i) {
+			var b = typeof value == 'function' ? value.call(this, d, i) : value;
+			if (b == null) {
+				return function() {
+					this.style.removeProperty(name);
+				};
+			}
+			var a = this.ownerDocument.defaultView.getComputedStyle(this, null).getPropertyValue(name);
+			if (a === b + '') {
+				return null;
+			}
+			var f = d3.interpolate(a, b);
+			return function(e) {
+				this.style.setProperty(name, f(e), '');
+			};
+		};
+    }-*/;
+}
@@ -37,9 +37,15 @@
 import com.github.gwtd3.api.Arrays;
 import com.github.gwtd3.api.D3;
 import com.github.gwtd3.api.arrays.Array;
+import com.github.gwtd3.api.functions.AttributesFunction;
 import com.github.gwtd3.api.functions.BooleanDatumFunction;
 import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.DoubleDatumFunction;
+import com.github.gwtd3.api.functions.FlyweightDatumFunction;
+import com.github.gwtd3.api.functions.IndexedKeyFunction;
+import com.github.gwtd3.api.functions.IntDatumFunction;
 import com.github.gwtd3.api.functions.KeyFunction;
+import com.github.gwtd3.api.functions.StringDatumFunction;
 import com.github.gwtd3.api.svg.PathDataGenerator;
 import com.github.gwtd3.api.utils.Utils;
 import com.google.gwt.core.client.JavaScriptObject;
@@ -112,6 +118,11 @@ public class Selection extends EnteringSelection {
      */
     public static final String DATA_PROPERTY = "__data__";
 
+    /**
+     * Last identifier of the registrations of {@link #onDelegated(String, DatumFunction)}.
+     */
+    private static int delegates;
+
     protected Selection() {
     }
 
@@ -160,7 +171,10 @@ public final native Element node()/*-{
      * @return
      */
     public final native Selection selectAll(String selector)/*-{
-		return this.selectAll(selector);
+		var selection = this.selectAll(selector);
+		// identifies the key indexes of dataDelta
+		selection.__gwtd3_selector__ = selector;
+		return selection;
     }-*/;
 
     /**
@@ -239,6 +253,7 @@ public native final String attr(final String name)
      */
     public native final <T> Selection attr(final String name, String value)
     /*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutatedBy(Ljava/lang/String;)(name);
 		return this.attr(name, value);
     }-*/;
 
@@ -275,6 +290,7 @@ public native final Selection attr(final String name,
      */
     public native final Selection attr(final String name, double value)
     /*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutatedBy(Ljava/lang/String;)(name);
 		return this.attr(name, value);
     }-*/;
 
@@ -286,6 +302,7 @@ public native final Selection attr(final String name, double value)
      * @return
      */
     public native final <T> Selection attr(final String name, boolean value)/*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutatedBy(Ljava/lang/String;)(name);
 		return this.attr(name, value);
     }-*/;
 
@@ -297,6 +314,10 @@ public native final <T> Selection attr(final String name, boolean value)/*-{
      * index i. The function's return value is then used to set each element's attribute. A null value will remove the
      * specified attribute.
      * <p>
+     * If the function is a {@link FlyweightDatumFunction}, the same {@link Value} instance is passed for every element,
+     * which avoids allocating a wrapper per element on large selections. This applies to the attr, style, property,
+     * text, html and each operators.
+     * <p>
      * The specified name may have a namespace prefix, such as xlink:href, to specify an "href" attribute in the XLink
      * namespace. By default, D3 supports svg, xhtml, xlink, xml, and xmlns namespaces. Additional namespaces can be
      * registered by adding to d3.ns.prefix.
@@ -310,14 +331,111 @@ public native final <T> Selection attr(final String name, boolean value)/*-{
     public native final Selection attr(final String name,
             final DatumFunction<?> callback)
     /*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutatedBy(Ljava/lang/String;)(name);
+		if (typeof callback == 'function') {
+			return this.attr(name, callback);
+		}
+		var v = @com.github.gwtd3.api.core.Value::flyweightFor(Ljava/lang/Object;)(callback);
 		return this
 				.attr(
 						name,
 						function(d, i) {
-							return callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+							return callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,v ? (v.datum = d, v) : {datum:d},i);
 						});
     }-*/;
 
+    /**
+     * Sets the attribute with the given name to the number returned by the given function for each selected element.
+     *
+     * @param name
+     *            the name of the attribute
+     * @param callback
+     *            the function used to compute the new value for each element
+     * @return the current selection
+     */
+    public final native Selection attrDouble(final String name, final DoubleDatumFunction callback)/*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutatedBy(Ljava/lang/String;)(name);
+		return this
+				.attr(name, function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+    }-*/;
+
+    /**
+     * Sets the attribute with the given name to the integer returned by the given function for each selected element.
+     *
+     * @param name
+     *            the name of the attribute
+     * @param callback
+     *            the function used to compute the new value for each element
+     * @return the current selection
+     */
+    public final native Selection attrInt(final String name, final IntDatumFunction callback)/*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutatedBy(Ljava/lang/String;)(name);
+		return this
+				.attr(name, function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.IntDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+    }-*/;
+
+    /**
+     * Sets the attribute with the given name to the string returned by the given function for each selected element, or
+     * removes the attribute when the function returns null.
+     *
+     * @param name
+     *            the name of the attribute
+     * @param callback
+     *            the function used to compute the new value for each element
+     * @return the current selection
+     */
+    public final native Selection attrString(final String name, final StringDatumFunction callback)/*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutatedBy(Ljava/lang/String;)(name);
+		return this
+				.attr(name, function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.StringDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+    }-*/;
+
+    /**
+     * Sets several attributes of each selected element in a single pass.
+     * <p>
+     * The function is evaluated once for each selected element (in order), being passed the current datum d, the
+     * current index i and an empty {@link Attributes} record, with the this context as the current DOM element. All
+     * the attributes set in the record are then written to the element. For instance, the tick handler of a force
+     * layout can set the positions of its nodes with:
+     *
+     * <pre>
+     * node.attrs(new AttributesFunction() {
+     *     public void apply(Element context, Value d, int index, Attributes attributes) {
+     *         Node n = d.as();
+     *         attributes.set(&quot;cx&quot;, n.x()).set(&quot;cy&quot;, n.y());
+     *     }
+     * });
+     * </pre>
+     * <p>
+     * This is equivalent to calling {@link #attr(String, DatumFunction)} once per attribute, but traverses the
+     * selection and calls back into Java only once per element. The {@link Value} and {@link Attributes} instances
+     * are reused for each element, and must not be retained by the function.
+     *
+     * @param callback
+     *            the function filling the attributes of each element
+     * @return the current selection
+     */
+    public native final Selection attrs(final AttributesFunction callback)/*-{
+		var v = {}, a = @com.github.gwtd3.api.core.Attributes::create()(), c = this.__gwtd3_counters__ || null, deferred = !!this.__gwtd3_deferred_mode__;
+		return this
+				.each(function(d, i) {
+					v.datum = d;
+					a.length = 0;
+					callback.@com.github.gwtd3.api.functions.AttributesFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;ILcom/github/gwtd3/api/core/Attributes;)(this,v,i,a);
+					if (deferred) {
+						a.@com.github.gwtd3.api.core.Attributes::deferTo(Lcom/google/gwt/dom/client/Element;)(this);
+					} else {
+						a.@com.github.gwtd3.api.core.Attributes::applyTo(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/WriteCounters;)(this, c);
+					}
+				});
+    }-*/;
+
     // ================ style functions ================
 
     /**
@@ -368,13 +486,17 @@ public native final Selection style(String name, double value) /*-{
      * @return
      */
     public native final Selection style(String name, DatumFunction<?> callback) /*-{
+		if (typeof callback == 'function') {
+			return this.style(name, callback);
+		}
+		var v = @com.github.gwtd3.api.core.Value::flyweightFor(Ljava/lang/Object;)(callback);
 		try {
 			return this
 					.style(
 							name,
 							function(d, i) {
 								try {
-									var r = callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+									var r = callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,v ? (v.datum = d, v) : {datum:d},i);
 									return r;
 								} catch (e) {
 									alert(e);
@@ -386,6 +508,40 @@ public native final Selection style(String name, DatumFunction<?> callback) /*-{
 		}
     }-*/;
 
+    /**
+     * Sets the style property with the given name to the number returned by the given function for each selected
+     * element, for unitless properties such as opacity or flex-grow.
+     *
+     * @param name
+     *            the name of the style
+     * @param callback
+     *            the function used to compute the new value for each element
+     * @return the current selection
+     */
+    public final native Selection styleDouble(final String name, final DoubleDatumFunction callback)/*-{
+		return this
+				.style(name, function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+    }-*/;
+
+    /**
+     * Sets the style property with the given name to the string returned by the given function for each selected
+     * element, or removes the property when the function returns null.
+     *
+     * @param name
+     *            the name of the style
+     * @param callback
+     *            the function used to compute the new value for each element
+     * @return the current selection
+     */
+    public final native Selection styleString(final String name, final StringDatumFunction callback)/*-{
+		return this
+				.style(name, function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.StringDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+    }-*/;
+
     /**
      * Sets the CSS style property with the specified name to the value returned
      * by the given function on all selected elements.
@@ -410,12 +566,16 @@ public native final Selection style(String name, DatumFunction<?> callback) /*-{
     public native final Selection style(String name, DatumFunction<?> callback,
             boolean important)/*-{
                    var imp = important ? 'important' : null;
+                   if (typeof callback == 'function') {
+                       return this.style(name, callback, imp);
+                   }
+                   var v = @com.github.gwtd3.api.core.Value::flyweightFor(Ljava/lang/Object;)(callback);
 				   return this.style(
 								name,
 								function(d, i) {
 								    var r =
 									callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)
-									(this,{datum:d},i);
+									(this,v ? (v.datum = d, v) : {datum:d},i);
 									return r?r.@java.lang.Object::toString()():null;
 								}, imp);
     }-*/;
@@ -443,6 +603,7 @@ public native final Selection style(String name, DatumFunction<?> callback,
      * @return the current selection
      */
     public native final Selection classed(String classNames, boolean add)/*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutated()();
 		return this.classed(classNames, add);
     }-*/;
 
@@ -522,6 +683,7 @@ public boolean apply(final Element context, final Value d, final int index) {
      * @return the current selection
      */
     public native final Selection classed(String classNames, BooleanDatumFunction addFunction)/*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutated()();
 		return this
 				.classed(
 						classNames,
@@ -573,6 +735,7 @@ public native final Value property(final String name)/*-{
      */
     public native final <T> Selection property(final String name, String value)
     /*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutatedBy(Ljava/lang/String;)(name);
 		return this.property(name, value);
     }-*/;
 
@@ -587,6 +750,7 @@ public native final <T> Selection property(final String name, String value)
      */
     public native final Selection property(final String name, double value)
     /*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutatedBy(Ljava/lang/String;)(name);
 		return this.property(name, value);
     }-*/;
 
@@ -601,6 +765,7 @@ public native final Selection property(final String name, double value)
      */
     public native final <T> Selection property(final String name,
             JavaScriptObject value)/*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutatedBy(Ljava/lang/String;)(name);
 		return this.property(name, value);
     }-*/;
 
@@ -614,6 +779,7 @@ public native final <T> Selection property(final String name,
      * @return the current selection
      */
     public native final <T> Selection property(final String name, boolean value)/*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutatedBy(Ljava/lang/String;)(name);
 		return this.property(name, value);
     }-*/;
 
@@ -644,11 +810,16 @@ public native final <T> Selection property(final String name, boolean value)/*-{
     public native final Selection property(final String name,
             final DatumFunction<?> callback)
     /*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutatedBy(Ljava/lang/String;)(name);
+		if (typeof callback == 'function') {
+			return this.property(name, callback);
+		}
+		var v = @com.github.gwtd3.api.core.Value::flyweightFor(Ljava/lang/Object;)(callback);
 		return this
 				.property(
 						name,
 						function(d, i) {
-							return callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+							return callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,v ? (v.datum = d, v) : {datum:d},i);
 						});
     }-*/;
 
@@ -697,9 +868,28 @@ public native final <T> Selection text(String value)/*-{
      * @return the current selection
      */
     public native final Selection text(final DatumFunction<String> callback) /*-{
+		if (typeof callback == 'function') {
+			return this.text(callback);
+		}
+		var v = @com.github.gwtd3.api.core.Value::flyweightFor(Ljava/lang/Object;)(callback);
+		return this
+				.text(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,v ? (v.datum = d, v) : {datum:d},i);
+				});
+    }-*/;
+
+    /**
+     * Sets the text content of each selected element to the string returned by the given function, or clears it when
+     * the function returns null.
+     *
+     * @param callback
+     *            the function used to compute the new value for each element
+     * @return the current selection
+     */
+    public final native Selection textString(final StringDatumFunction callback)/*-{
 		return this
 				.text(function(d, i) {
-					return callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+					return callback.@com.github.gwtd3.api.functions.StringDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
 				});
     }-*/;
 
@@ -722,9 +912,14 @@ public native final Selection text(final DatumFunction<String> callback) /*-{
      * @return the current selection
      */
     public native final Selection html(final DatumFunction<String> callback) /*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutated()();
+		if (typeof callback == 'function') {
+			return this.html(callback);
+		}
+		var v = @com.github.gwtd3.api.core.Value::flyweightFor(Ljava/lang/Object;)(callback);
 		return this
 				.html(function(d, i) {
-					return callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+					return callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,v ? (v.datum = d, v) : {datum:d},i);
 				});
     }-*/;
 
@@ -742,6 +937,7 @@ public native final Selection html(final DatumFunction<String> callback) /*-{
      * @return the current selection
      */
     public native final Selection html(String value)/*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutated()();
 		return this.html(value);
     }-*/;
 
@@ -776,9 +972,25 @@ public native final String html()/*-{
      * @return the current selection containing only the removed elements
      */
     public native final Selection remove()/*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutated()();
 		return this.remove();
     }-*/;
 
+    /**
+     * Removes the elements in the current selection from the current document, and puts them into the given pool so
+     * that they can be reused by {@link EnteringSelection#append(String, NodePool)}.
+     *
+     * @param pool
+     *            the pool receiving the removed elements
+     * @return the current selection containing only the removed elements
+     */
+    public native final Selection remove(NodePool pool)/*-{
+		return this
+				.each(function() {
+					pool.@com.github.gwtd3.api.core.NodePool::put(Lcom/google/gwt/core/client/JavaScriptObject;)(this);
+				});
+    }-*/;
+
     // ================ controls functions ================
 
     /**
@@ -805,12 +1017,185 @@ public final native int size()/*-{
      * @return the current selection
      */
     public native final Selection each(DatumFunction<Void> func) /*-{
+		var v = @com.github.gwtd3.api.core.Value::flyweightFor(Ljava/lang/Object;)(func);
 		return this
 				.each(function(d, i) {
-					func.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+					func.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,v ? (v.datum = d, v) : {datum:d},i);
 				});
     }-*/;
 
+    /**
+     * Enables the change-detection mode on this selection.
+     * <p>
+     * In this mode, the last value written to each attribute and style property of each element is cached on the
+     * element, and the {@link #attr(String, DatumFunction)}, {@link #style(String, DatumFunction)} and
+     * {@link #attrs(com.github.gwtd3.api.functions.AttributesFunction)} operators (and their overloads) of this
+     * selection skip the DOM write when the new value, converted to a string, is equal to the cached one. This avoids
+     * the style and layout invalidation of elements whose value did not change, for instance the fixed nodes of a force
+     * layout redrawn on each tick.
+     * <p>
+     * The cache only knows about the writes made by selections in change-detection mode: if the same attributes are
+     * also modified by other means, they should be written through such a selection too.
+     * <p>
+     * The mode is bound to this selection object: keep a reference on it rather than reselecting the elements. Calling
+     * this method several times has no further effect.
+     *
+     * @return the current selection
+     */
+    public native final Selection dirtyChecked()/*-{
+		if (this.__gwtd3_counters__) {
+			return this;
+		}
+		var counters = this.__gwtd3_counters__ = @com.github.gwtd3.api.core.WriteCounters::create()();
+		var proto = $wnd.d3.selection.prototype;
+		this.attr = function(name, value) {
+			if (arguments.length < 2 || typeof name != 'string') {
+				return proto.attr.apply(this, arguments);
+			}
+			var key = 'attr:' + name, q = $wnd.d3.ns.qualify(name), f = typeof value == 'function';
+			@com.github.gwtd3.api.core.SelectionCache::mutatedBy(Ljava/lang/String;)(name);
+			return this
+					.each(function(d, i) {
+						var x = f ? value.call(this, d, i) : value;
+						if (!counters.@com.github.gwtd3.api.core.WriteCounters::record(Lcom/google/gwt/dom/client/Element;Ljava/lang/String;Ljava/lang/Object;)(this, key, x)) {
+							return;
+						}
+						if (x == null) {
+							q.local ? this.removeAttributeNS(q.space, q.local) : this.removeAttribute(q);
+						} else {
+							q.local ? this.setAttributeNS(q.space, q.local, x) : this.setAttribute(q, x);
+						}
+					});
+		};
+		this.style = function(name, value, priority) {
+			if (arguments.length < 2 || typeof name != 'string') {
+				return proto.style.apply(this, arguments);
+			}
+			var key = 'style:' + name, f = typeof value == 'function';
+			priority = priority || '';
+			return this
+					.each(function(d, i) {
+						var x = f ? value.call(this, d, i) : value;
+						if (!counters.@com.github.gwtd3.api.core.WriteCounters::record(Lcom/google/gwt/dom/client/Element;Ljava/lang/String;Ljava/lang/Object;)(this, key, x)) {
+							return;
+						}
+						if (x == null) {
+							this.style.removeProperty(name);
+						} else {
+							this.style.setProperty(name, x, priority);
+						}
+					});
+		};
+		return this;
+    }-*/;
+
+    /**
+     * Returns the counters of the attribute and style writes made by this selection since
+     * {@link #dirtyChecked()} was called, or since the counters were last reset.
+     *
+     * @return the counters, or null if this selection is not in change-detection mode
+     */
+    public native final WriteCounters writeCounters()/*-{
+		return this.__gwtd3_counters__ || null;
+    }-*/;
+
+    /**
+     * Enables the deferred mode on this selection.
+     * <p>
+     * In this mode, the {@link #attr(String, DatumFunction)}, {@link #attrs(AttributesFunction)},
+     * {@link #style(String, DatumFunction)} and {@link #text(DatumFunction)} operators (and their overloads) of this
+     * selection compute the new values immediately, but only record them: the recorded writes of all the deferred
+     * selections are applied to the DOM once, on the next animation frame. When the same property of the same element
+     * is written several times before that, only the last value is applied.
+     * <p>
+     * This is meant for selections updated from high rate event listeners, such as the ones registered with
+     * {@link #on(String, DatumFunction)} or the zoom, brush and drag behaviors: the DOM is then written at most once per
+     * frame whatever the rate of the events, and the writes are no longer interleaved with the layout reads of the
+     * browser.
+     * <p>
+     * The getters still return the current state of the DOM, without the pending writes; use {@link #flushDeferred()}
+     * to apply them immediately. The deferred mode replaces the {@link #dirtyChecked() change-detection mode} if both
+     * are enabled on the same selection.
+     * <p>
+     * The mode is bound to this selection object: keep a reference on it rather than reselecting the elements. Calling
+     * this method several times has no further effect.
+     *
+     * @return the current selection
+     */
+    public native final Selection deferred()/*-{
+		if (this.__gwtd3_deferred_mode__) {
+			return this;
+		}
+		this.__gwtd3_deferred_mode__ = true;
+		var proto = $wnd.d3.selection.prototype;
+		function defer(selection, kind, name, value, priority) {
+			var f = typeof value == 'function';
+			return selection
+					.each(function(d, i) {
+						@com.github.gwtd3.api.core.DeferredWrites::write(Lcom/google/gwt/dom/client/Element;Ljava/lang/String;Ljava/lang/String;Ljava/lang/Object;Ljava/lang/String;)(this, kind, name, f ? value.call(this, d, i) : value, priority);
+					});
+		}
+		this.attr = function(name, value) {
+			if (arguments.length < 2 || typeof name != 'string') {
+				return proto.attr.apply(this, arguments);
+			}
+			return defer(this, 'attr', name, value, null);
+		};
+		this.style = function(name, value, priority) {
+			if (arguments.length < 2 || typeof name != 'string') {
+				return proto.style.apply(this, arguments);
+			}
+			return defer(this, 'style', name, value, priority || '');
+		};
+		this.text = function(value) {
+			if (!arguments.length) {
+				return proto.text.call(this);
+			}
+			return defer(this, 'text', '', value, null);
+		};
+		return this;
+    }-*/;
+
+    /**
+     * Applies immediately the writes recorded by all the selections in {@link #deferred() deferred mode}, instead of
+     * waiting for the next animation frame.
+     */
+    public static final void flushDeferred() {
+        DeferredWrites.flush();
+    }
+
+    /**
+     * Returns the elements of the current selection and their bound data as flat, index-aligned arrays, built in a
+     * single pass.
+     * <p>
+     * Unlike {@link #each(DatumFunction)} or {@link #data()}, this lets Java code loop over all the elements of a
+     * multi-group selection without any callback or wrapper per element, e.g. for hit-testing or to mirror a selection
+     * on a canvas.
+     *
+     * @return the flat arrays
+     */
+    public native final FlatSelection flatten()/*-{
+		var nodes = [], data = [], indexes = [], groups = [];
+		for (var j = 0, m = this.length; j < m; j++) {
+			var group = this[j];
+			for (var i = 0, n = group.length; i < n; i++) {
+				var node = group[i];
+				if (node) {
+					nodes.push(node);
+					data.push(node.__data__);
+					indexes.push(i);
+					groups.push(j);
+				}
+			}
+		}
+		return {
+			nodes : nodes,
+			data : data,
+			indexes : indexes,
+			groups : groups
+		};
+    }-*/;
+
     // ================================ data getter functions ========
 
     /**
@@ -857,6 +1242,9 @@ public native final <T> Array<T> data()/*-{
      * @return the update selection
      */
     public native final UpdateSelection data(JavaScriptObject array)/*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutated()();
+		@com.github.gwtd3.api.core.KeyIndex::invalidate(Lcom/github/gwtd3/api/core/Selection;)(this);
+		@com.github.gwtd3.api.core.ProgressiveRendering::cancelOn(Lcom/github/gwtd3/api/core/Selection;)(this);
 		return this.data(array);
     }-*/;
 
@@ -864,7 +1252,8 @@ public native final UpdateSelection data(JavaScriptObject array)/*-{
      * Same as {@link #data(JavaScriptObject)} but let the user control how to
      * map data to the selection.
      * <p>
-     * See {@link KeyFunction}'s documentation.
+     * See {@link KeyFunction}'s documentation. When the keys only depend on the data, pass an
+     * {@link IndexedKeyFunction} so that the keys are cached between the successive joins.
      * <p>
      *
      * @param array
@@ -876,6 +1265,12 @@ public native final UpdateSelection data(JavaScriptObject array)/*-{
      */
     public native final UpdateSelection data(JavaScriptObject array,
             KeyFunction<?> keyFunction)/*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutated()();
+		@com.github.gwtd3.api.core.KeyIndex::invalidate(Lcom/github/gwtd3/api/core/Selection;)(this);
+		@com.github.gwtd3.api.core.ProgressiveRendering::cancelOn(Lcom/github/gwtd3/api/core/Selection;)(this);
+		if (@com.github.gwtd3.api.core.KeyIndex::isIndexed(Ljava/lang/Object;)(keyFunction)) {
+			return @com.github.gwtd3.api.core.KeyIndex::data(Lcom/github/gwtd3/api/core/Selection;Lcom/google/gwt/core/client/JavaScriptObject;Lcom/github/gwtd3/api/functions/KeyFunction;)(this, array, keyFunction);
+		}
 		return this
 				.data(
 						array,
@@ -913,6 +1308,9 @@ public native final UpdateSelection data(JavaScriptObject array,
      */
     public native final <T extends JavaScriptObject> UpdateSelection data(
             DatumFunction<T> callback) /*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutated()();
+		@com.github.gwtd3.api.core.KeyIndex::invalidate(Lcom/github/gwtd3/api/core/Selection;)(this);
+		@com.github.gwtd3.api.core.ProgressiveRendering::cancelOn(Lcom/github/gwtd3/api/core/Selection;)(this);
 		return this
 				.data(function(d, i) {
 					var result = callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
@@ -1150,6 +1548,69 @@ public final UpdateSelection data(final List<?> list,
         return this.data(Array.fromIterable(list), keyFunction);
     }
 
+    /**
+     * Applies a change set to the data joined with the current selection by the given key function, instead of joining
+     * the whole new data array.
+     * <p>
+     * The data of the update array replace the data of the elements having the same keys; the data of the insert array
+     * are joined with the elements having the same keys if any, or with placeholders of the entering selection
+     * otherwise; the elements having the keys of the data of the remove array are put in the exiting selection. The
+     * returned {@link UpdateSelection}, its {@link UpdateSelection#enter()} and {@link UpdateSelection#exit()}
+     * selections are used as the ones returned by {@link #data(JavaScriptObject, KeyFunction)}, except that they only
+     * contain the changed elements, the updated ones first, the inserted ones then: the index passed to the operator
+     * functions is the position in this change set.
+     * <p>
+     * The elements are found by key using an index stored on the parent node of the current selection, which is built
+     * on the first call, and then maintained by the next calls: the cost of a call is then proportional to the size of
+     * the change set, and not to the size of the whole data. The elements appended to the entering selection are
+     * indexed on the next call. The parent node keeps an index for each selector passed to {@link #selectAll(String)}
+     * and each key function, and the index is rebuilt after a join of the same elements with {@link #data}. As for any
+     * keyed join, the key function must return the same key for a datum and for the element it was joined with.
+     * <p>
+     * The current selection must have a single group with a parent node, as returned by {@link #selectAll(String)} on
+     * a single element or by {@link com.github.gwtd3.api.D3#selectAll(String)}: the selections of explicit elements have
+     * no parent node to keep the index, and are rejected.
+     *
+     * @param insert
+     *            the data to add, or null
+     * @param update
+     *            the data replacing the data of existing elements, or null
+     * @param remove
+     *            the data whose elements must be removed, or null
+     * @param keyFunction
+     *            the function to control how data is mapped to the selection elements
+     * @return the {@link UpdateSelection} containing the updated elements
+     */
+    public final UpdateSelection dataDelta(final JavaScriptObject insert, final JavaScriptObject update,
+            final JavaScriptObject remove, final KeyFunction<?> keyFunction) {
+        if (!KeyIndex.isIndexable(this)) {
+            throw new IllegalStateException("dataDelta requires a selection with a single group and a parent node");
+        }
+        ProgressiveRendering.cancelOn(this);
+        return KeyIndex.delta(this, insert, update, remove, keyFunction);
+    }
+
+    /**
+     * Same as {@link #dataDelta(JavaScriptObject, JavaScriptObject, JavaScriptObject, KeyFunction)} for {@link List}s
+     * of objects.
+     *
+     * @param insert
+     *            the data to add, or null
+     * @param update
+     *            the data replacing the data of existing elements, or null
+     * @param remove
+     *            the data whose elements must be removed, or null
+     * @param keyFunction
+     *            the key function
+     * @return the {@link UpdateSelection} containing the updated elements
+     */
+    public final UpdateSelection dataDelta(final List<?> insert, final List<?> update, final List<?> remove,
+            final KeyFunction<?> keyFunction) {
+        return dataDelta(insert == null ? null : Array.fromIterable(insert),
+                update == null ? null : Array.fromIterable(update),
+                remove == null ? null : Array.fromIterable(remove), keyFunction);
+    }
+
     // ================================ datum functions ========
 
     /**
@@ -1263,12 +1724,109 @@ public native final Selection filter(
      *            the comparator to be used
      */
     public native final Selection sort(final Comparator<Value> comparator)/*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutated()();
 		return this
 				.sort(function(o1, o2) {
 					return comparator.@java.util.Comparator::compare(Ljava/lang/Object;Ljava/lang/Object;)({datum:o1},{datum:o2});
 				});
     }-*/;
 
+    /**
+     * Sorts the elements in the current selection by ascending numeric key.
+     * <p>
+     * Unlike {@link #sort(Comparator)}, which invokes the comparator for each comparison, the key function is evaluated
+     * once per element, being passed the current datum d and index i with the this context as the current DOM element;
+     * the keys are then sorted natively in a typed array, without calling back into a comparator, and the document is
+     * re-ordered once. The sort is stable:
+     * elements with equal keys keep their relative order. Null elements are put at the end of their group, and NaN keys
+     * after the other keys.
+     *
+     * @param key
+     *            the function returning the sort key of each element
+     * @return the current selection
+     */
+    public native final Selection sortDouble(final DoubleDatumFunction key)/*-{
+		return @com.github.gwtd3.api.core.Selection::sortByKey(Lcom/github/gwtd3/api/core/Selection;Lcom/google/gwt/core/client/JavaScriptObject;Z)(this, function(d, i) {
+			return key.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+		}, true);
+    }-*/;
+
+    /**
+     * Sorts the elements in the current selection by ascending string key, in the same way as
+     * {@link #sortDouble(DoubleDatumFunction)}.
+     * <p>
+     * The keys are compared with the &lt; operator, which compares the UTF-16 code units of the strings, by a comparator
+     * on the indexes of the keys: typed arrays only hold numbers. Null keys are put after the other keys.
+     *
+     * @param key
+     *            the function returning the sort key of each element
+     * @return the current selection
+     */
+    public native final Selection sortString(final StringDatumFunction key)/*-{
+		return @com.github.gwtd3.api.core.Selection::sortByKey(Lcom/github/gwtd3/api/core/Selection;Lcom/google/gwt/core/client/JavaScriptObject;Z)(this, function(d, i) {
+			return key.@com.github.gwtd3.api.functions.StringDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+		}, false);
+    }-*/;
+
+    private static native Selection sortByKey(Selection selection, JavaScriptObject key, boolean numeric)/*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutated()();
+		var typed = numeric && typeof Float64Array != 'undefined';
+		for (var j = 0, m = selection.length; j < m; j++) {
+			var group = selection[j], nodes = [], positions = [];
+			for (var i = 0, n = group.length; i < n; i++) {
+				if (group[i]) {
+					nodes.push(group[i]);
+					positions.push(i);
+				}
+			}
+			var count = nodes.length, indexes = new Array(count), keys = typed ? new Float64Array(count)
+					: new Array(count);
+			for (var k = 0; k < count; k++) {
+				indexes[k] = k;
+				keys[k] = key.call(nodes[k], nodes[k].__data__, positions[k]);
+			}
+			if (typed) {
+				// sort the keys natively, NaN last, then put each element at the first free slot of its key, in the
+				// order of the group to keep the sort stable
+				var sorted = new Float64Array(keys).sort(), filled = new Uint32Array(count), nan = 0;
+				while (nan < count && sorted[nan] === sorted[nan]) {
+					nan++;
+				}
+				for (var k = 0; k < count; k++) {
+					var x = keys[k], lo = nan, slot;
+					if (x === x) {
+						lo = 0;
+						for (var hi = nan; lo < hi;) {
+							var mid = (lo + hi) >>> 1;
+							if (sorted[mid] < x) {
+								lo = mid + 1;
+							} else {
+								hi = mid;
+							}
+						}
+					}
+					slot = lo + filled[lo]++;
+					indexes[slot] = k;
+				}
+			} else {
+				indexes.sort(numeric ? function(a, b) {
+					var ka = keys[a], kb = keys[b];
+					return ka < kb ? -1 : ka > kb ? 1 : ka === kb ? a - b : isNaN(ka) ? (isNaN(kb) ? a - b : 1) : -1;
+				} : function(a, b) {
+					var ka = keys[a], kb = keys[b];
+					return ka == null ? (kb == null ? a - b : 1) : kb == null ? -1 : ka < kb ? -1 : ka > kb ? 1 : a - b;
+				});
+			}
+			for (var k = 0; k < count; k++) {
+				group[k] = nodes[indexes[k]];
+			}
+			for (var k = count, n = group.length; k < n; k++) {
+				group[k] = null;
+			}
+		}
+		return selection.order();
+    }-*/;
+
     /**
      * Re-inserts elements into the document such that the document order
      * matches the selection order.
@@ -1276,6 +1834,7 @@ public native final Selection sort(final Comparator<Value> comparator)/*-{
      * This is equivalent to calling sort() if the data is already sorted, but much faster.
      */
     public native final Selection order()/*-{
+		@com.github.gwtd3.api.core.SelectionCache::mutated()();
 		return this.order();
     }-*/;
 
@@ -1348,6 +1907,10 @@ public native final Selection on(String eventType,
      * To remove a listener, pass null as the listener. To remove all listeners for a particular event type, pass null
      * as the listener, and .type as the type, e.g. selection.on(".foo", null).
      * <p>
+     * Selections updated by high rate listeners, such as mousemove listeners, can be put in {@link #deferred()} mode
+     * to write the DOM only once per animation frame; the listener itself can be wrapped in a
+     * {@link com.github.gwtd3.api.functions.CoalescingDatumFunction} to be invoked only once per frame.
+     * <p>
      *
      *
      * @param eventType
@@ -1375,4 +1938,94 @@ public native final Selection on(String eventType,
 		return this.on(eventType, l, useCapture);
     }-*/;
 
+
+    /**
+     * Same as {@link #on(String, DatumFunction)}, but installs a single event listener on the parent node of each
+     * group of the current selection instead of one listener per element.
+     * <p>
+     * When an event of the given type reaches the parent node, the listener is invoked for the element of the current
+     * selection containing the target of the event, if any, being passed its bound datum d and its index i in the
+     * current selection, with the this context as this element, exactly as with {@link #on(String, DatumFunction)}.
+     * <p>
+     * Registering the listener only marks each element with its index, which is much cheaper than adding a DOM
+     * listener to each element for large selections. The indexes are the ones of the current selection: register the
+     * listener again after a new join changes them. Only the events which bubble can be delegated: use mouseover and
+     * mouseout rather than mouseenter and mouseleave.
+     * <p>
+     * Each call installs its own listener on the parent nodes, so that several child selections of the same parent
+     * node may delegate the same event type. An element belongs to the last registration made for it with the given
+     * event type.
+     * <p>
+     * To remove the listener of the elements of the current selection, pass null as the listener.
+     *
+     * @param eventType
+     *            the type of the event to listen to, with an optional namespace such as "click.foo"
+     * @param listener
+     *            the listener, or null to remove the previous one
+     * @return the current selection
+     */
+    public native final Selection onDelegated(String eventType, DatumFunction<Void> listener)/*-{
+		// each element knows its registration for the event type, each parent counts the elements of each registration
+		var key = '__gwtd3_delegate_' + eventType, id = 0, parents = [];
+		if (listener != null) {
+			id = ++@com.github.gwtd3.api.core.Selection::delegates;
+		}
+		var mark = '__gwtd3_delegate_' + id;
+		function count(parent, registration, delta) {
+			var counts = parent.__gwtd3_delegates__ || (parent.__gwtd3_delegates__ = {});
+			counts[registration] = (counts[registration] || 0) + delta;
+		}
+		for (var j = 0, m = this.length; j < m; j++) {
+			var group = this[j], parent = group.parentNode;
+			if (!parent) {
+				continue;
+			}
+			for (var i = 0, n = group.length; i < n; i++) {
+				var node = group[i];
+				if (node) {
+					var previous = node[key];
+					if (previous) {
+						delete node['__gwtd3_delegate_' + previous];
+						count(parent, previous, -1);
+					}
+					if (listener == null) {
+						delete node[key];
+					} else {
+						node[key] = id;
+						node[mark] = i;
+						count(parent, id, 1);
+					}
+				}
+			}
+			if (parents.indexOf(parent) < 0) {
+				parents.push(parent);
+			}
+		}
+		// remove the listeners of the registrations left without elements
+		for (var j = 0, m = parents.length; j < m; j++) {
+			var counts = parents[j].__gwtd3_delegates__;
+			for ( var registration in counts) {
+				if (counts[registration] <= 0) {
+					delete counts[registration];
+					$wnd.d3.select(parents[j]).on(eventType + '.gwtd3delegate' + registration, null);
+				}
+			}
+		}
+		if (listener != null) {
+			$wnd.d3
+					.selectAll(parents)
+					.on(
+							eventType + '.gwtd3delegate' + id,
+							function() {
+								// find the delegating element containing the target
+								for (var node = $wnd.d3.event.target; node && node !== this; node = node.parentNode) {
+									if (mark in node) {
+										listener.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(node,{datum:node.__data__},node[mark]);
+										return;
+									}
+								}
+							});
+		}
+		return this;
+    }-*/;
 }
@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.core;
+
+import com.github.gwtd3.api.D3;
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * A cache of the selections returned by {@link D3#select(String)} and {@link D3#selectAll(String)}, to avoid running
+ * the same <code>querySelector</code> on each frame of an animation.
+ * <p>
+ * The cached selections are invalidated by a global mutation counter, incremented by the Java operators of the
+ * library changing the structure of the document: <code>append</code>, <code>insert</code>, <code>remove</code>,
+ * <code>data</code>, <code>html</code>, <code>order</code> and <code>sort</code> on selections, entering selections
+ * and transitions, by the operators changing what the selectors match: <code>classed</code>, and <code>attr</code> or
+ * <code>property</code> on the class and id of the elements, and by the operations working on the DOM directly, like
+ * {@link EnteringSelection#bulkAppend(String)}, {@link ProgressiveRendering}, {@link NodePool} or
+ * {@link Selection#dataDelta(JavaScriptObject, JavaScriptObject, JavaScriptObject, com.github.gwtd3.api.functions.KeyFunction)}.
+ * Between two mutations, getting a cached selection is O(1).
+ * <p>
+ * The counter costs one increment per operator call, not per element, and the d3 prototypes are left untouched. The
+ * changes made to the document by other means, including Javascript code calling d3 directly, a
+ * {@link Selection#text(String)} replacing child elements, a transition of the class attribute or a selector depending
+ * on other attributes, are not tracked: call {@link #invalidate()} after them.
+ *
+ * <pre>
+ * SelectionCache cache = new SelectionCache();
+ * force.on(ForceEventType.TICK, new DatumFunction&lt;Void&gt;() {
+ *     public Void apply(Element context, Value d, int index) {
+ *         cache.selectAll(&quot;#chart&quot;, &quot;.node&quot;).attr(&quot;cx&quot;, ...);
+ *         return null;
+ *     }
+ * });
+ * </pre>
+ */
+public class SelectionCache {
+
+    private final JavaScriptObject entries = JavaScriptObject.createObject();
+
+    private int hits;
+
+    private int misses;
+
+    /**
+     * Create an empty cache.
+     */
+    public SelectionCache() {
+    }
+
+    /**
+     * Same as {@link D3#select(String)}, returning the cached selection if no mutation occurred since it was
+     * selected.
+     *
+     * @param selector
+     *            a CSS3 selector
+     * @return the selection
+     */
+    public Selection select(final String selector) {
+        Selection selection = get("s " + selector);
+        if (selection == null) {
+            selection = put("s " + selector, D3.select(selector));
+        }
+        return selection;
+    }
+
+    /**
+     * Same as {@link D3#selectAll(String)}, returning the cached selection if no mutation occurred since it was
+     * selected.
+     *
+     * @param selector
+     *            a CSS3 selector
+     * @return the selection
+     */
+    public Selection selectAll(final String selector) {
+        Selection selection = get("a " + selector);
+        if (selection == null) {
+            selection = put("a " + selector, D3.selectAll(selector));
+        }
+        return selection;
+    }
+
+    /**
+     * Same as <code>D3.select(parentSelector).selectAll(selector)</code>, returning the cached selection if no mutation
+     * occurred since it was selected.
+     *
+     * @param parentSelector
+     *            the CSS3 selector of the parent element
+     * @param selector
+     *            the CSS3 selector of the descendants of the parent element
+     * @return the selection
+     */
+    public Selection selectAll(final String parentSelector, final String selector) {
+        String key = "p " + parentSelector + "\n" + selector;
+        Selection selection = get(key);
+        if (selection == null) {
+            selection = put(key, D3.select(parentSelector).selectAll(selector));
+        }
+        return selection;
+    }
+
+    /**
+     * Discards all the cached selections.
+     *
+     * @return this cache
+     */
+    public SelectionCache invalidate() {
+        clear(entries);
+        return this;
+    }
+
+    /**
+     * @return the number of selections returned from the cache
+     */
+    public int hits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of selections which had to be selected in the document
+     */
+    public int misses() {
+        return misses;
+    }
+
+    /**
+     * @return the current value of the global mutation counter
+     */
+    public static native int mutations()/*-{
+		return $wnd.d3.__gwtd3_mutations__ | 0;
+    }-*/;
+
+    /**
+     * Increments the global mutation counter. Called by the operators of the library changing the document.
+     */
+    static native void mutated()/*-{
+		$wnd.d3.__gwtd3_mutations__ = ($wnd.d3.__gwtd3_mutations__ | 0) + 1;
+    }-*/;
+
+    /**
+     * Increments the global mutation counter if the attribute or property with the given name changes what the
+     * selectors match.
+     *
+     * @param name
+     *            the name of the attribute or property
+     */
+    static native void mutatedBy(String name)/*-{
+		if (name == 'class' || name == 'id' || name == 'className') {
+			$wnd.d3.__gwtd3_mutations__ = ($wnd.d3.__gwtd3_mutations__ | 0) + 1;
+		}
+    }-*/;
+
+    private Selection get(final String key) {
+        Selection selection = get(entries, key, mutations());
+        if (selection == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return selection;
+    }
+
+    private Selection put(final String key, final Selection selection) {
+        put(entries, key, selection, mutations());
+        return selection;
+    }
+
+    private static native Selection get(JavaScriptObject entries, String key, int mutations)/*-{
+		var entry = entries[key];
+		return entry && entry.mutations === mutations ? entry.selection : null;
+    }-*/;
+
+    private static native void put(JavaScriptObject entries, String key, Selection selection, int mutations)/*-{
+		entries[key] = {
+			selection : selection,
+			mutations : mutations
+		};
+    }-*/;
+
+    private static native void clear(JavaScriptObject entries)/*-{
+		for ( var key in entries) {
+			delete entries[key];
+		}
+    }-*/;
+}
@@ -0,0 +1,437 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import com.github.gwtd3.api.D3;
+import com.github.gwtd3.api.functions.TimerFunction;
+import com.google.gwt.core.client.GWT;
+
+/**
+ * A queue of {@link TimerFunction}s sharing a single d3 timer, with priorities, a per-frame time budget, cancellable
+ * handles and execution time metrics.
+ * <p>
+ * Unlike {@link D3#timer(TimerFunction)}, which registers an independent d3 timer that can only stop by returning
+ * true, each function scheduled on the queue gets a {@link Handle} to cancel it and to read how long its executions
+ * take. On each animation frame, the due functions are executed by decreasing priority; among functions of the same
+ * priority, the one which waited the longest goes first. Once the time spent in the frame exceeds the
+ * {@link #budget(double)}, the remaining functions are deferred to the next frame. At least one function is executed
+ * in each frame.
+ * <p>
+ * A function throwing an exception is cancelled, and the exception is reported to the uncaught exception handler of
+ * GWT without preventing the other functions from running.
+ *
+ * <pre>
+ * TimerQueue.Handle handle = D3.timerQueue().schedule(animation, TimerQueue.HIGH);
+ * ...
+ * GWT.log(handle.averageTime() + "ms per frame");
+ * handle.cancel();
+ * </pre>
+ */
+public class TimerQueue {
+
+    /**
+     * Priority of the functions which must run on every frame, like animations.
+     */
+    public static final int HIGH = 10;
+
+    /**
+     * Default priority.
+     */
+    public static final int NORMAL = 0;
+
+    /**
+     * Priority of the background work which may be deferred.
+     */
+    public static final int LOW = -10;
+
+    private static final Comparator<Handle> ORDER = new Comparator<Handle>() {
+        @Override
+        public int compare(final Handle a, final Handle b) {
+            if (a.priority != b.priority) {
+                return a.priority > b.priority ? -1 : 1;
+            }
+            return Double.compare(a.lastRun, b.lastRun);
+        }
+    };
+
+    private static TimerQueue instance;
+
+    private final List<Handle> handles = new ArrayList<Handle>();
+
+    private double budget = 10;
+
+    private boolean running;
+
+    private int frames;
+
+    private int deferred;
+
+    private double lastFrameTime;
+
+    private double maxFrameTime;
+
+    /**
+     * A function scheduled on a {@link TimerQueue}.
+     */
+    public static class Handle {
+
+        private final TimerQueue queue;
+
+        private final TimerFunction function;
+
+        private final double start;
+
+        private int priority;
+
+        private boolean active = true;
+
+        private double lastRun = Double.NEGATIVE_INFINITY;
+
+        private int executions;
+
+        private double totalTime;
+
+        private double maxTime;
+
+        private double lastTime;
+
+        Handle(final TimerQueue queue, final TimerFunction function, final int priority, final double start) {
+            this.queue = queue;
+            this.function = function;
+            this.priority = priority;
+            this.start = start;
+        }
+
+        /**
+         * Removes the function from the queue; it will not be executed again.
+         */
+        public void cancel() {
+            active = false;
+        }
+
+        /**
+         * @return true until the function returns true or is cancelled
+         */
+        public boolean isActive() {
+            return active;
+        }
+
+        /**
+         * @return the priority of the function
+         */
+        public int priority() {
+            return priority;
+        }
+
+        /**
+         * Changes the priority of the function, from the next frame.
+         *
+         * @param priority
+         *            the new priority
+         * @return this handle
+         */
+        public Handle priority(final int priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        /**
+         * @return the number of executions of the function
+         */
+        public int executions() {
+            return executions;
+        }
+
+        /**
+         * @return the total time spent executing the function, in milliseconds
+         */
+        public double totalTime() {
+            return totalTime;
+        }
+
+        /**
+         * @return the longest execution of the function, in milliseconds
+         */
+        public double maxTime() {
+            return maxTime;
+        }
+
+        /**
+         * @return the duration of the last execution of the function, in milliseconds
+         */
+        public double lastTime() {
+            return lastTime;
+        }
+
+        /**
+         * @return the average duration of the executions of the function, in milliseconds, or 0 if it was never
+         *         executed
+         */
+        public double averageTime() {
+            return executions == 0 ? 0 : totalTime / executions;
+        }
+
+        /**
+         * @return the queue of this function
+         */
+        public TimerQueue queue() {
+            return queue;
+        }
+
+        private void run(final double now) {
+            lastRun = now;
+            double t0 = now();
+            boolean done = true;
+            try {
+                done = function.execute();
+            } catch (RuntimeException e) {
+                GWT.reportUncaughtException(e);
+            } finally {
+                lastTime = now() - t0;
+                totalTime += lastTime;
+                maxTime = Math.max(maxTime, lastTime);
+                executions++;
+                if (done) {
+                    active = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Create an empty queue. Most applications should share the queue returned by {@link #get()}, so that all their
+     * functions share the same budget.
+     */
+    public TimerQueue() {
+    }
+
+    /**
+     * @return the shared queue
+     */
+    public static TimerQueue get() {
+        if (instance == null) {
+            instance = new TimerQueue();
+        }
+        return instance;
+    }
+
+    /**
+     * Sets the maximum time spent executing functions in each frame, in milliseconds. The default budget is 10
+     * milliseconds.
+     *
+     * @param milliseconds
+     *            the budget
+     * @return this queue
+     */
+    public TimerQueue budget(final double milliseconds) {
+        this.budget = milliseconds;
+        return this;
+    }
+
+    /**
+     * @return the maximum time spent executing functions in each frame, in milliseconds
+     */
+    public double budget() {
+        return budget;
+    }
+
+    /**
+     * Schedules the given function with the {@link #NORMAL} priority, to be executed on each frame until it returns
+     * true or is cancelled.
+     *
+     * @param function
+     *            the function
+     * @return the handle of the function
+     */
+    public Handle schedule(final TimerFunction function) {
+        return schedule(function, NORMAL, 0);
+    }
+
+    /**
+     * Schedules the given function with the given priority, to be executed on each frame until it returns true or is
+     * cancelled.
+     *
+     * @param function
+     *            the function
+     * @param priority
+     *            the priority, higher priorities are executed first
+     * @return the handle of the function
+     */
+    public Handle schedule(final TimerFunction function, final int priority) {
+        return schedule(function, priority, 0);
+    }
+
+    /**
+     * Schedules the given function with the given priority, to be executed on each frame after the given delay until
+     * it returns true or is cancelled.
+     *
+     * @param function
+     *            the function
+     * @param priority
+     *            the priority, higher priorities are executed first
+     * @param delayMillis
+     *            the delay before the first execution, in milliseconds
+     * @return the handle of the function
+     */
+    public Handle schedule(final TimerFunction function, final int priority, final double delayMillis) {
+        Handle handle = new Handle(this, function, priority, now() + delayMillis);
+        handles.add(handle);
+        if (!running) {
+            running = true;
+            D3.timer(new TimerFunction() {
+                @Override
+                public boolean execute() {
+                    return runFrame();
+                }
+            });
+        }
+        return handle;
+    }
+
+    /**
+     * @return the number of functions scheduled and not yet done or cancelled
+     */
+    public int size() {
+        int size = 0;
+        for (Handle handle : handles) {
+            if (handle.active) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of frames run since the last {@link #resetCounters()}
+     */
+    public int frames() {
+        return frames;
+    }
+
+    /**
+     * @return the number of executions deferred to a later frame because the budget was exceeded, since the last
+     *         {@link #resetCounters()}
+     */
+    public int deferred() {
+        return deferred;
+    }
+
+    /**
+     * @return the time spent executing the functions in the last frame, in milliseconds
+     */
+    public double lastFrameTime() {
+        return lastFrameTime;
+    }
+
+    /**
+     * @return the longest time spent executing the functions in a frame since the last {@link #resetCounters()}, in
+     *         milliseconds
+     */
+    public double maxFrameTime() {
+        return maxFrameTime;
+    }
+
+    /**
+     * Resets the frame counters of this queue. The metrics of the handles are not reset.
+     *
+     * @return this queue
+     */
+    public TimerQueue resetCounters() {
+        frames = deferred = 0;
+        maxFrameTime = 0;
+        return this;
+    }
+
+    /**
+     * Immediately executes the due functions, as if a frame occurred, within the budget.
+     *
+     * @return this queue
+     */
+    public TimerQueue flush() {
+        step();
+        return this;
+    }
+
+    /**
+     * Executes one frame from the d3 timer.
+     *
+     * @return true when the queue is empty, to stop the underlying d3 timer
+     */
+    private boolean runFrame() {
+        step();
+        if (handles.isEmpty()) {
+            running = false;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the current time, in the time base of <code>performance.now()</code>
+     */
+    private static native double now()/*-{
+		return $wnd.performance.now();
+    }-*/;
+
+    private void step() {
+        double start = now();
+        List<Handle> due = new ArrayList<Handle>();
+        for (Handle handle : handles) {
+            if (handle.active && handle.start <= start) {
+                due.add(handle);
+            }
+        }
+        Collections.sort(due, ORDER);
+        for (int i = 0, n = due.size(); i < n; i++) {
+            if (i > 0 && now() - start > budget) {
+                deferred += n - i;
+                break;
+            }
+            Handle handle = due.get(i);
+            // may have been cancelled by a previous function of this frame
+            if (handle.active) {
+                handle.run(start);
+            }
+        }
+        for (Iterator<Handle> it = handles.iterator(); it.hasNext();) {
+            if (!it.next().active) {
+                it.remove();
+            }
+        }
+        frames++;
+        lastFrameTime = now() - start;
+        maxFrameTime = Math.max(maxFrameTime, lastFrameTime);
+    }
+}
@@ -36,8 +36,12 @@
 import com.github.gwtd3.api.ease.Easing;
 import com.github.gwtd3.api.ease.EasingFunction;
 import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.DoubleDatumFunction;
+import com.github.gwtd3.api.functions.IntDatumFunction;
+import com.github.gwtd3.api.functions.StringDatumFunction;
 import com.github.gwtd3.api.interpolators.Interpolator;
 import com.github.gwtd3.api.svg.PathDataGenerator;
+import com.github.gwtd3.api.tweens.JavascriptTween;
 import com.github.gwtd3.api.tweens.TweenFunction;
 import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.dom.client.Element;
@@ -147,6 +151,21 @@ public native final Transition delay(DatumFunction<Integer> func)/*-{
 				});
 	}-*/;
 
+	/**
+	 * Sets the delay of each element, in milliseconds, to the integer returned
+	 * by the given function.
+	 *
+	 * @param callback
+	 *            the function used to compute the new value for each element
+	 * @return the current transition
+	 */
+	public final native Transition delayInt(final IntDatumFunction callback)/*-{
+		return this
+				.delay(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.IntDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+	}-*/;
+
 	/**
 	 * Specifies transition duration in milliseconds of all elements. The
 	 * default duration is 250ms.
@@ -174,6 +193,21 @@ public native final Transition duration(DatumFunction<Integer> func)/*-{
 				});
 	}-*/;
 
+	/**
+	 * Sets the duration of each element, in milliseconds, to the integer
+	 * returned by the given function.
+	 *
+	 * @param callback
+	 *            the function used to compute the new value for each element
+	 * @return the current transition
+	 */
+	public final native Transition durationInt(final IntDatumFunction callback)/*-{
+		return this
+				.duration(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.IntDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+	}-*/;
+
 	/**
 	 * Specifies the transition {@link EasingFunction} to be used.
 	 * <p>
@@ -185,12 +219,19 @@ public native final Transition duration(DatumFunction<Integer> func)/*-{
 	 * can apply custom easing inside your interpolator using
 	 * {@link #attrTween(String, TweenFunction)} or {@link #styleTween()}
 	 * <p>
+	 * The functions created by {@link Easing}, including the lookup tables of
+	 * {@link Easing#table(EasingFunction, int)}, are handed directly to d3;
+	 * other implementations are called through Java on each frame.
+	 * <p>
 	 * 
 	 * @param callback
 	 *            the easing function
 	 * @return the current transition
 	 */
 	public native final Transition ease(EasingFunction callback)/*-{
+		if (typeof callback == 'function') {
+			return this.ease(callback);
+		}
 		var r = this
 				.ease(function(t) {
 					return @com.github.gwtd3.api.core.Transition::trampolineCallEase(Lcom/github/gwtd3/api/ease/EasingFunction;D)(callback,t);
@@ -290,6 +331,9 @@ public native final Transition attr(final String name, double value)
 	public native final Transition attr(final String name,
 			final DatumFunction<?> callback)
 	/*-{
+		if (typeof callback == 'function') {
+			return this.attr(name, callback);
+		}
 		return this
 				.attr(
 						name,
@@ -298,6 +342,42 @@ public native final Transition attr(final String name,
 						});
 	}-*/;
 
+	/**
+	 * Transitions the attribute with the given name to the number returned by
+	 * the given function for each element, interpolating numbers from the
+	 * current value.
+	 *
+	 * @param name
+	 *            the name of the attribute
+	 * @param callback
+	 *            the function used to compute the new value for each element
+	 * @return the current transition
+	 */
+	public final native Transition attrDouble(final String name, final DoubleDatumFunction callback)/*-{
+		return this
+				.attr(name, function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+	}-*/;
+
+	/**
+	 * Transitions the attribute with the given name to the string returned by
+	 * the given function for each element, interpolated by d3.interpolate as a
+	 * color or as a string with embedded numbers.
+	 *
+	 * @param name
+	 *            the name of the attribute
+	 * @param callback
+	 *            the function used to compute the new value for each element
+	 * @return the current transition
+	 */
+	public final native Transition attrString(final String name, final StringDatumFunction callback)/*-{
+		return this
+				.attr(name, function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.StringDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+	}-*/;
+
 	/**
 	 * Transitions the attribute with the specified name to the specified
 	 * {@link PathDataGenerator} value on all selected elements.
@@ -335,6 +415,9 @@ public native final Transition attr(final String name,
 	 * The return value of tween must be an interpolator: a function that maps a
 	 * parametric value t in the domain [0,1] to a color, number or arbitrary
 	 * value.
+	 * <p>
+	 * A {@link com.github.gwtd3.api.tweens.JavascriptTween} is handed directly
+	 * to d3, so that the frames of the transition do not call back into Java.
 	 * 
 	 * @see <a
 	 *      href="https://github.com/mbostock/d3/wiki/Transitions#wiki-attrTween">Offical
@@ -347,6 +430,9 @@ public native final Transition attr(final String name,
 	 */
 	public native final Transition attrTween(String name,
 			TweenFunction<?> tweenFunction)/*-{
+		if (typeof tweenFunction == 'function') {
+			return this.attrTween(name, tweenFunction);
+		}
 		return this
 				.attrTween(
 						name,
@@ -356,6 +442,218 @@ public native final Transition attrTween(String name,
 						});
 	}-*/;
 
+	// ================ numeric tweens ================
+
+	/**
+	 * Transitions the attribute with the specified name to the specified
+	 * number, interpolating raw doubles.
+	 * <p>
+	 * Unlike {@link #attr(String, double)}, which goes through d3's generic
+	 * interpolator, the starting value is parsed once as a number when the
+	 * transition starts, and each frame only computes a double and writes it to
+	 * the attribute. Non numeric starting values are considered as 0.
+	 * 
+	 * @param name
+	 *            the name of the attribute
+	 * @param value
+	 *            the ending value
+	 * @return the current transition
+	 */
+	public native final Transition attrNumber(String name, double value)/*-{
+		return this.tween('attr.' + name, @com.github.gwtd3.api.core.Transition::numberTween(Ljava/lang/String;Ljava/lang/String;Ljava/lang/Object;Ljava/lang/String;)('attr', name, value, null));
+	}-*/;
+
+	/**
+	 * Same as {@link #attrNumber(String, double)}, computing the ending value
+	 * of each element with the given function when the transition starts.
+	 * 
+	 * @param name
+	 *            the name of the attribute
+	 * @param callback
+	 *            the function computing the ending value
+	 * @return the current transition
+	 */
+	public native final Transition attrNumber(String name,
+			DoubleDatumFunction callback)/*-{
+		return this.tween('attr.' + name, @com.github.gwtd3.api.core.Transition::numberTween(Ljava/lang/String;Ljava/lang/String;Ljava/lang/Object;Ljava/lang/String;)('attr', name, @com.github.gwtd3.api.core.Transition::doubleFunction(Lcom/github/gwtd3/api/functions/DoubleDatumFunction;)(callback), null));
+	}-*/;
+
+	/**
+	 * Transitions the style property with the specified name to the specified
+	 * number followed by the given unit, interpolating raw doubles.
+	 * <p>
+	 * The starting value is the current computed value, parsed once as a
+	 * number when the transition starts; computed dimensions are always in
+	 * pixels.
+	 * 
+	 * @param name
+	 *            the name of the style property, such as opacity
+	 * @param value
+	 *            the ending value
+	 * @param unit
+	 *            the unit appended to the value, such as "px", or null
+	 * @return the current transition
+	 */
+	public native final Transition styleNumber(String name, double value,
+			String unit)/*-{
+		return this.tween('style.' + name, @com.github.gwtd3.api.core.Transition::numberTween(Ljava/lang/String;Ljava/lang/String;Ljava/lang/Object;Ljava/lang/String;)('style', name, value, unit));
+	}-*/;
+
+	/**
+	 * Same as {@link #styleNumber(String, double, String)}, computing the
+	 * ending value of each element with the given function when the transition
+	 * starts.
+	 * 
+	 * @param name
+	 *            the name of the style property
+	 * @param callback
+	 *            the function computing the ending value
+	 * @param unit
+	 *            the unit appended to the value, such as "px", or null
+	 * @return the current transition
+	 */
+	public native final Transition styleNumber(String name,
+			DoubleDatumFunction callback, String unit)/*-{
+		return this.tween('style.' + name, @com.github.gwtd3.api.core.Transition::numberTween(Ljava/lang/String;Ljava/lang/String;Ljava/lang/Object;Ljava/lang/String;)('style', name, @com.github.gwtd3.api.core.Transition::doubleFunction(Lcom/github/gwtd3/api/functions/DoubleDatumFunction;)(callback), unit));
+	}-*/;
+
+	/**
+	 * Transitions the translation of the transform attribute to the specified
+	 * offsets, interpolating raw doubles.
+	 * <p>
+	 * The current transform of each element is decomposed once when the
+	 * transition starts. On each frame, the translation, rotation and scale are
+	 * interpolated as doubles and formatted into a single transform string. The
+	 * components not specified by {@link #translate(double, double)},
+	 * {@link #scale(double)} and {@link #rotate(double)} keep their starting
+	 * value, and so does the skew; these methods can be combined on the same
+	 * transition. See {@link JavascriptTween#transform(JavaScriptObject)}.
+	 * 
+	 * @param x
+	 *            the ending x offset
+	 * @param y
+	 *            the ending y offset
+	 * @return the current transition
+	 */
+	public native final Transition translate(double x, double y)/*-{
+		return this.attrTween('transform', @com.github.gwtd3.api.core.Transition::transformTween(Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;Ljava/lang/Object;Ljava/lang/Object;)(this, 'translate', x, y));
+	}-*/;
+
+	/**
+	 * Same as {@link #translate(double, double)}, computing the ending offsets
+	 * of each element with the given functions when the transition starts.
+	 * 
+	 * @param x
+	 *            the function computing the ending x offset
+	 * @param y
+	 *            the function computing the ending y offset
+	 * @return the current transition
+	 */
+	public native final Transition translate(DoubleDatumFunction x,
+			DoubleDatumFunction y)/*-{
+		return this.attrTween('transform', @com.github.gwtd3.api.core.Transition::transformTween(Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;Ljava/lang/Object;Ljava/lang/Object;)(this, 'translate', @com.github.gwtd3.api.core.Transition::doubleFunction(Lcom/github/gwtd3/api/functions/DoubleDatumFunction;)(x), @com.github.gwtd3.api.core.Transition::doubleFunction(Lcom/github/gwtd3/api/functions/DoubleDatumFunction;)(y)));
+	}-*/;
+
+	/**
+	 * Transitions the scale of the transform attribute to the specified
+	 * uniform scale. See {@link #translate(double, double)}.
+	 * 
+	 * @param k
+	 *            the ending scale
+	 * @return the current transition
+	 */
+	public native final Transition scale(double k)/*-{
+		return this.attrTween('transform', @com.github.gwtd3.api.core.Transition::transformTween(Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;Ljava/lang/Object;Ljava/lang/Object;)(this, 'scale', k, null));
+	}-*/;
+
+	/**
+	 * Same as {@link #scale(double)}, computing the ending scale of each
+	 * element with the given function when the transition starts.
+	 * 
+	 * @param k
+	 *            the function computing the ending scale
+	 * @return the current transition
+	 */
+	public native final Transition scale(DoubleDatumFunction k)/*-{
+		return this.attrTween('transform', @com.github.gwtd3.api.core.Transition::transformTween(Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;Ljava/lang/Object;Ljava/lang/Object;)(this, 'scale', @com.github.gwtd3.api.core.Transition::doubleFunction(Lcom/github/gwtd3/api/functions/DoubleDatumFunction;)(k), null));
+	}-*/;
+
+	/**
+	 * Transitions the rotation of the transform attribute to the specified
+	 * angle in degrees, along the shortest path. See
+	 * {@link #translate(double, double)}.
+	 * 
+	 * @param degrees
+	 *            the ending angle
+	 * @return the current transition
+	 */
+	public native final Transition rotate(double degrees)/*-{
+		return this.attrTween('transform', @com.github.gwtd3.api.core.Transition::transformTween(Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;Ljava/lang/Object;Ljava/lang/Object;)(this, 'rotate', degrees, null));
+	}-*/;
+
+	/**
+	 * Same as {@link #rotate(double)}, computing the ending angle of each
+	 * element with the given function when the transition starts.
+	 * 
+	 * @param degrees
+	 *            the function computing the ending angle
+	 * @return the current transition
+	 */
+	public native final Transition rotate(DoubleDatumFunction degrees)/*-{
+		return this.attrTween('transform', @com.github.gwtd3.api.core.Transition::transformTween(Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;Ljava/lang/Object;Ljava/lang/Object;)(this, 'rotate', @com.github.gwtd3.api.core.Transition::doubleFunction(Lcom/github/gwtd3/api/functions/DoubleDatumFunction;)(degrees), null));
+	}-*/;
+
+	private static native JavaScriptObject doubleFunction(
+			DoubleDatumFunction callback)/*-{
+		return function(d, i) {
+			return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+		};
+	}-*/;
+
+	/**
+	 * Returns a tween factory interpolating the number of the given attribute
+	 * or style property from its starting value to the given constant or
+	 * function value.
+	 */
+	private static native JavaScriptObject numberTween(String kind,
+			String name, Object value, String unit)/*-{
+		var q = kind == 'attr' ? $wnd.d3.ns.qualify(name) : null, suffix = unit || '';
+		return function(d, i) {
+			var b = +(typeof value == 'function' ? value.call(this, d, i) : value), a;
+			if (q) {
+				a = parseFloat(q.local ? this.getAttributeNS(q.space, q.local) : this.getAttribute(q));
+			} else {
+				a = parseFloat(this.ownerDocument.defaultView.getComputedStyle(this, null).getPropertyValue(name));
+			}
+			if (isNaN(a)) {
+				a = 0;
+			}
+			var delta = b - a;
+			if (!q) {
+				return function(t) {
+					this.style.setProperty(name, (a + delta * t) + suffix, '');
+				};
+			}
+			return q.local ? function(t) {
+				this.setAttributeNS(q.space, q.local, a + delta * t);
+			} : function(t) {
+				this.setAttribute(q, a + delta * t);
+			};
+		};
+	}-*/;
+
+	/**
+	 * Records the given component of the ending transform of the given
+	 * transition, and returns a {@link JavascriptTween} interpolating all the
+	 * recorded components.
+	 */
+	private static native JavaScriptObject transformTween(
+			JavaScriptObject transition, String component, Object a, Object b)/*-{
+		var components = transition.__gwtd3_transform__ || (transition.__gwtd3_transform__ = {});
+		components[component] = component == 'translate' ? [ a, b ] : a;
+		return @com.github.gwtd3.api.tweens.JavascriptTween::transform(Lcom/google/gwt/core/client/JavaScriptObject;)(components);
+	}-*/;
+
 	// ================ style functions ================
 
 	/**
@@ -420,6 +718,9 @@ public native final Transition style(String name, double value) /*-{
 	 * @return the current transition
 	 */
 	public native final Transition style(String name, DatumFunction<?> callback) /*-{
+		if (typeof callback == 'function') {
+			return this.style(name, callback);
+		}
 		try {
 			return this
 					.style(
@@ -439,6 +740,42 @@ public native final Transition style(String name, DatumFunction<?> callback) /*-
 		}
 	}-*/;
 
+	/**
+	 * Transitions the style property with the given name to the number returned
+	 * by the given function for each element, for unitless properties such as
+	 * opacity.
+	 *
+	 * @param name
+	 *            the name of the style
+	 * @param callback
+	 *            the function used to compute the new value for each element
+	 * @return the current transition
+	 */
+	public final native Transition styleDouble(final String name, final DoubleDatumFunction callback)/*-{
+		return this
+				.style(name, function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+	}-*/;
+
+	/**
+	 * Transitions the style property with the given name to the string returned
+	 * by the given function for each element, interpolated by d3.interpolate as
+	 * a color or as a string with embedded numbers.
+	 *
+	 * @param name
+	 *            the name of the style
+	 * @param callback
+	 *            the function used to compute the new value for each element
+	 * @return the current transition
+	 */
+	public final native Transition styleString(final String name, final StringDatumFunction callback)/*-{
+		return this
+				.style(name, function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.StringDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+	}-*/;
+
 	/**
 	 * Transitions the value of the CSS style property with the specified name
 	 * to the specified value.
@@ -509,6 +846,9 @@ public native final Selection style(String name, DatumFunction<?> callback,
 	 * parametric value t in the domain [0,1] to a color, number or arbitrary
 	 * value.
 	 * <p>
+	 * A {@link com.github.gwtd3.api.tweens.JavascriptTween} is handed directly
+	 * to d3, so that the frames of the transition do not call back into Java.
+	 * <p>
 	 * 
 	 * @param name
 	 *            the name of the style to set
@@ -523,6 +863,9 @@ public native final Selection style(String name, DatumFunction<?> callback,
 	public native final Selection styleTween(String name,
 			TweenFunction<?> tweenFunction, boolean important)/*-{
 		var imp = important ? 'important' : null;
+		if (typeof tweenFunction == 'function') {
+			return this.styleTween(name, tweenFunction, imp);
+		}
 		return this
 				.styleTween(
 						name,
@@ -571,12 +914,30 @@ public native final <T> Transition text(String value)/*-{
 	 * @return the current transition
 	 */
 	public native final Transition text(final DatumFunction<String> callback) /*-{
+		if (typeof callback == 'function') {
+			return this.text(callback);
+		}
 		return this
 				.text(function(d, i) {
 					return callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
 				});
 	}-*/;
 
+	/**
+	 * Sets the text content of each element to the string returned by the given
+	 * function when the transition starts.
+	 *
+	 * @param callback
+	 *            the function used to compute the new value for each element
+	 * @return the current transition
+	 */
+	public final native Transition textString(final StringDatumFunction callback)/*-{
+		return this
+				.text(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.StringDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+	}-*/;
+
 	/**
 	 * Registers a custom tween for the specified name.
 	 * <p>
@@ -615,7 +976,9 @@ public native final Transition tween(String name,
 	 * @return the current transition
 	 */
 	public native final Transition remove()/*-{
-		return this.remove();
+		return this.remove().each('end.gwtd3cache', function() {
+			@com.github.gwtd3.api.core.SelectionCache::mutated()();
+		});
 	}-*/;
 
 	// ====================== subtransition ====================
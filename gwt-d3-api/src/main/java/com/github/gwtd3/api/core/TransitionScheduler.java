@@ -0,0 +1,302 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.core;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Drives all the {@link ScheduledTransition}s from a single animation frame loop, within a per-frame time budget.
+ * <p>
+ * Unlike {@link Transition}s, which schedule one d3 timer per element, the scheduled transitions are stepped together
+ * on each animation frame: for each transition, the eased time is computed once, and the tweens of all its elements
+ * are applied in a single loop. The interpolators are resolved once per element when the transition starts.
+ * <p>
+ * The transitions are visited in turn, starting each frame where the previous one stopped. When the time spent in a
+ * frame exceeds the {@link #budget(double)}, the remaining transitions are skipped until the next frame: since each
+ * transition computes its state from the current time when it is visited, a skipped transition just misses an
+ * intermediate frame, and the animation never stalls. At least one transition is stepped in each frame.
+ *
+ * <pre>
+ * TransitionScheduler.get().budget(10).transition(circles)
+ *         .duration(750).attr(&quot;cx&quot;, x).style(&quot;opacity&quot;, 0.5);
+ * </pre>
+ */
+public class TransitionScheduler {
+
+    private static TransitionScheduler instance;
+
+    private final JavaScriptObject engine;
+
+    /**
+     * Create a scheduler with its own animation frame loop. Most applications should share the scheduler returned by
+     * {@link #get()}.
+     */
+    public TransitionScheduler() {
+        engine = create();
+    }
+
+    /**
+     * @return the shared scheduler
+     */
+    public static TransitionScheduler get() {
+        if (instance == null) {
+            instance = new TransitionScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Sets the maximum time spent stepping the transitions in each frame, in milliseconds. The default budget is 10
+     * milliseconds.
+     *
+     * @param milliseconds
+     *            the budget
+     * @return this scheduler
+     */
+    public native TransitionScheduler budget(double milliseconds)/*-{
+		this.@com.github.gwtd3.api.core.TransitionScheduler::engine.budget = milliseconds;
+		return this;
+    }-*/;
+
+    /**
+     * @return the maximum time spent stepping the transitions in each frame, in milliseconds
+     */
+    public native double budget()/*-{
+		return this.@com.github.gwtd3.api.core.TransitionScheduler::engine.budget;
+    }-*/;
+
+    /**
+     * Schedule a new transition on the elements of the given selection. The transition starts on the next animation
+     * frame, after its delay.
+     *
+     * @param selection
+     *            the elements to transition
+     * @return the new transition
+     */
+    public ScheduledTransition transition(final Selection selection) {
+        return new ScheduledTransition(add(engine, selection));
+    }
+
+    /**
+     * @return the number of transitions scheduled or running
+     */
+    public native int active()/*-{
+		return this.@com.github.gwtd3.api.core.TransitionScheduler::engine.jobs.length;
+    }-*/;
+
+    /**
+     * @return the number of animation frames run since the last {@link #resetCounters()}
+     */
+    public native int frames()/*-{
+		return this.@com.github.gwtd3.api.core.TransitionScheduler::engine.frames;
+    }-*/;
+
+    /**
+     * @return the number of transition steps skipped because the budget was exceeded, since the last
+     *         {@link #resetCounters()}
+     */
+    public native int skipped()/*-{
+		return this.@com.github.gwtd3.api.core.TransitionScheduler::engine.skipped;
+    }-*/;
+
+    /**
+     * @return the maximum time spent in a frame since the last {@link #resetCounters()}, in milliseconds
+     */
+    public native double maxFrameTime()/*-{
+		return this.@com.github.gwtd3.api.core.TransitionScheduler::engine.maxFrameTime;
+    }-*/;
+
+    /**
+     * Resets the frame counters.
+     *
+     * @return this scheduler
+     */
+    public native TransitionScheduler resetCounters()/*-{
+		var engine = this.@com.github.gwtd3.api.core.TransitionScheduler::engine;
+		engine.frames = engine.skipped = engine.maxFrameTime = 0;
+		return this;
+    }-*/;
+
+    /**
+     * Runs one frame synchronously, at the given time, ignoring the budget. Mostly intended for tests.
+     *
+     * @param now
+     *            the time of the frame, in the time base of <code>performance.now()</code>
+     * @return this scheduler
+     */
+    public native TransitionScheduler flush(double now)/*-{
+		var engine = this.@com.github.gwtd3.api.core.TransitionScheduler::engine;
+		engine.run(now, Infinity);
+		return this;
+    }-*/;
+
+    /**
+     * @return the current time, in the time base of <code>performance.now()</code> and of the animation frames
+     */
+    public static native double now()/*-{
+		return $wnd.performance.now();
+    }-*/;
+
+    private static native JavaScriptObject add(JavaScriptObject engine, Selection selection)/*-{
+		return engine.add(selection);
+    }-*/;
+
+    private static native JavaScriptObject create()/*-{
+		var engine = {
+			jobs : [],
+			budget : 10,
+			next : 0,
+			frame : 0,
+			frames : 0,
+			skipped : 0,
+			maxFrameTime : 0,
+			ids : 0
+		};
+		var perf = $wnd.performance;
+
+		function start(job) {
+			var nodes = job.nodes = [], data = job.data = [], states = job.states = [];
+			for (var j = 0, m = job.selection.length; j < m; j++) {
+				var group = job.selection[j];
+				for (var i = 0, n = group.length; i < n; i++) {
+					var node = group[i];
+					if (node) {
+						node.__gwtd3_scheduled__ = job.id;
+						nodes.push(node);
+						data.push(node.__data__);
+					}
+				}
+			}
+			for (var k = 0; k < job.tweens.length; k++) {
+				var factory = job.tweens[k], tweens = states[k] = new Array(nodes.length);
+				for (var i = 0, n = nodes.length; i < n; i++) {
+					tweens[i] = factory.call(nodes[i], data[i], i);
+				}
+			}
+			job.started = true;
+		}
+
+		function step(job, now) {
+			if (job.cancelled) {
+				return true;
+			}
+			var elapsed = now - job.time - job.delay;
+			if (elapsed < 0) {
+				return false;
+			}
+			if (!job.started) {
+				start(job);
+			}
+			var t = job.duration > 0 ? Math.min(1, elapsed / job.duration) : 1, e = job.ease(t);
+			var nodes = job.nodes, id = job.id;
+			for (var k = 0; k < job.states.length; k++) {
+				var tweens = job.states[k];
+				for (var i = 0, n = nodes.length; i < n; i++) {
+					var node = nodes[i], tween = tweens[i];
+					if (tween && node.__gwtd3_scheduled__ === id) {
+						tween.call(node, e);
+					}
+				}
+			}
+			if (t < 1) {
+				return false;
+			}
+			for (var i = 0, n = nodes.length; i < n; i++) {
+				var node = nodes[i];
+				if (node.__gwtd3_scheduled__ === id) {
+					delete node.__gwtd3_scheduled__;
+					if (job.remove && node.parentNode) {
+						node.parentNode.removeChild(node);
+					}
+				}
+			}
+			if (job.remove) {
+				@com.github.gwtd3.api.core.SelectionCache::mutated()();
+			}
+			job.ended = true;
+			for (var l = 0; l < job.end.length; l++) {
+				job.end[l](job.selection);
+			}
+			return true;
+		}
+
+		engine.run = function(now, budget) {
+			var jobs = engine.jobs, n = jobs.length, t0 = perf.now(), first = engine.next % (n || 1);
+			var done = [], resume = null;
+			for (var k = 0; k < n; k++) {
+				if (k > 0 && perf.now() - t0 > budget) {
+					engine.skipped += n - k;
+					resume = jobs[(first + k) % n];
+					break;
+				}
+				var job = jobs[(first + k) % n];
+				if (step(job, now)) {
+					done.push(job);
+				}
+			}
+			if (done.length) {
+				engine.jobs = jobs.filter(function(job) {
+					return done.indexOf(job) < 0;
+				});
+			}
+			// the cursor is found after the finished jobs are removed, so that no job is skipped
+			engine.next = resume ? engine.jobs.indexOf(resume) : 0;
+			engine.frames++;
+			engine.maxFrameTime = Math.max(engine.maxFrameTime, perf.now() - t0);
+		};
+
+		function frame(now) {
+			engine.frame = 0;
+			engine.run(now, engine.budget);
+			if (engine.jobs.length) {
+				engine.frame = $wnd.requestAnimationFrame(callback);
+			}
+		}
+		var callback = $entry(frame);
+
+		engine.add = function(selection) {
+			var job = {
+				id : ++engine.ids,
+				selection : selection,
+				time : perf.now(),
+				delay : 0,
+				duration : 250,
+				ease : $wnd.d3.ease('cubic-in-out'),
+				tweens : [],
+				end : []
+			};
+			engine.jobs.push(job);
+			if (!engine.frame) {
+				engine.frame = $wnd.requestAnimationFrame(callback);
+			}
+			return job;
+		};
+		return engine;
+    }-*/;
+}
@@ -29,6 +29,7 @@
 package com.github.gwtd3.api.core;
 
 import com.github.gwtd3.api.Coords;
+import com.github.gwtd3.api.functions.FlyweightDatumFunction;
 import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.core.client.JsDate;
 
@@ -77,6 +78,21 @@ public static final native Value create(JavaScriptObject object,
         };
     }-*/;
 
+    /**
+     * Returns the {@link Value} to be reused for every invocation of the given callback during a selection pass, or
+     * null if the callback expects a new {@link Value} for each element.
+     * <p>
+     * This method is intended to be called from JSNI operators, which should replace the datum of the returned
+     * instance before each invocation when it is not null.
+     *
+     * @param callback
+     *            the callback about to be invoked for each element
+     * @return a reusable value if the callback is a {@link FlyweightDatumFunction}, null otherwise
+     */
+    static Value flyweightFor(final Object callback) {
+        return callback instanceof FlyweightDatumFunction ? create(null) : null;
+    }
+
     /**
      * Cast and return the wrapped value.
      * <p>
@@ -0,0 +1,354 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.core;
+
+import com.github.gwtd3.api.behaviour.Zoom;
+import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.SelectionFunction;
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * A selection bound to a whole dataset, but keeping DOM elements only for the data whose position falls in a window.
+ * <p>
+ * The position of each datum is computed once by the x and y accessors when the data are set. Each time the window
+ * moves, the visible data are joined by index with the existing elements of the container: the elements are thus
+ * recycled, and only the difference between the numbers of visible data is appended or removed. The enter function is
+ * applied to the appended elements, and the update function to all the elements bound to visible data, which are
+ * drawn in the coordinates of the data.
+ * <p>
+ * The window is usually driven by a {@link Zoom} behavior, see {@link #zoom(Zoom)}: the container is then
+ * transformed by the translate and scale of the zoom, and the window is the viewport expressed in the coordinates of
+ * the data.
+ *
+ * <pre>
+ * VirtualSelection points = new VirtualSelection(svg.append(&quot;g&quot;), &quot;circle&quot;)
+ *         .positions(JavascriptAccessor.property(&quot;x&quot;), JavascriptAccessor.property(&quot;y&quot;))
+ *         .viewport(width, height)
+ *         .onEnter(...).onUpdate(...)
+ *         .data(hugeArray);
+ * svg.call(points.zoom(D3.behavior().zoom()));
+ * </pre>
+ * <p>
+ * The container must not contain other elements with the same tag name.
+ */
+public class VirtualSelection {
+
+    private final Selection container;
+
+    private final String tagName;
+
+    private DatumFunction<Double> x;
+
+    private DatumFunction<Double> y;
+
+    private SelectionFunction enterFunction;
+
+    private SelectionFunction updateFunction;
+
+    private JavaScriptObject data;
+
+    private JavaScriptObject xs;
+
+    private JavaScriptObject ys;
+
+    private JavaScriptObject index;
+
+    private double width;
+
+    private double height;
+
+    private double margin;
+
+    private double x0, y0, x1, y1;
+
+    private int visibleCount;
+
+    /**
+     * Create a virtual selection of the elements with the given tag name in the given container.
+     *
+     * @param container
+     *            the element holding the visible elements, usually an svg g element
+     * @param tagName
+     *            the tag name of the elements
+     */
+    public VirtualSelection(final Selection container, final String tagName) {
+        this.container = container;
+        this.tagName = tagName;
+    }
+
+    /**
+     * Sets the accessors computing the position of each datum.
+     *
+     * @param x
+     *            the x accessor
+     * @param y
+     *            the y accessor
+     * @return this virtual selection
+     */
+    public VirtualSelection positions(final DatumFunction<Double> x, final DatumFunction<Double> y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    /**
+     * Sets the size of the viewport, used as the initial window and to compute the window from the transform of a
+     * zoom.
+     *
+     * @param width
+     *            the width of the viewport
+     * @param height
+     *            the height of the viewport
+     * @return this virtual selection
+     */
+    public VirtualSelection viewport(final double width, final double height) {
+        this.width = width;
+        this.height = height;
+        this.x0 = this.y0 = 0;
+        this.x1 = width;
+        this.y1 = height;
+        return this;
+    }
+
+    /**
+     * Sets a margin added around the window, in the coordinates of the data, so that the elements partially visible on
+     * the edges, like circles whose center is outside the window, are still rendered.
+     *
+     * @param margin
+     *            the margin
+     * @return this virtual selection
+     */
+    public VirtualSelection margin(final double margin) {
+        this.margin = margin;
+        return this;
+    }
+
+    /**
+     * Sets the function applied to the newly appended elements, typically to set their constant attributes.
+     *
+     * @param enterFunction
+     *            the function
+     * @return this virtual selection
+     */
+    public VirtualSelection onEnter(final SelectionFunction enterFunction) {
+        this.enterFunction = enterFunction;
+        return this;
+    }
+
+    /**
+     * Sets the function applied to all the elements after each change of the window, to set the attributes depending
+     * on the data.
+     *
+     * @param updateFunction
+     *            the function
+     * @return this virtual selection
+     */
+    public VirtualSelection onUpdate(final SelectionFunction updateFunction) {
+        this.updateFunction = updateFunction;
+        return this;
+    }
+
+    /**
+     * Binds the given dataset, computes the position of each datum and renders the visible ones.
+     * <p>
+     * The data are also indexed by x, so that each change of the window only scans the data within the horizontal range
+     * of the window instead of the whole dataset. Call this method again when the positions of the data change.
+     *
+     * @param data
+     *            the array of data
+     * @return this virtual selection
+     */
+    public VirtualSelection data(final JavaScriptObject data) {
+        this.data = data;
+        this.xs = positions(data, x);
+        this.ys = positions(data, y);
+        this.index = index(xs, ys);
+        return render();
+    }
+
+    /**
+     * Moves the window to the given rectangle, in the coordinates of the data, and renders the visible data.
+     *
+     * @param x0
+     *            the left of the window
+     * @param y0
+     *            the top of the window
+     * @param x1
+     *            the right of the window
+     * @param y1
+     *            the bottom of the window
+     * @return this virtual selection
+     */
+    public VirtualSelection window(final double x0, final double y0, final double x1, final double y1) {
+        this.x0 = x0;
+        this.y0 = y0;
+        this.x1 = x1;
+        this.y1 = y1;
+        return render();
+    }
+
+    /**
+     * Transforms the container with the given translate and scale, and moves the window to the viewport expressed in
+     * the coordinates of the data.
+     *
+     * @param tx
+     *            the x translation
+     * @param ty
+     *            the y translation
+     * @param k
+     *            the scale
+     * @return this virtual selection
+     */
+    public VirtualSelection transform(final double tx, final double ty, final double k) {
+        container.attr("transform", "translate(" + tx + "," + ty + ")scale(" + k + ")");
+        return window(-tx / k, -ty / k, (width - tx) / k, (height - ty) / k);
+    }
+
+    /**
+     * Registers a listener on the given zoom behavior, which {@link #transform(double, double, double) transforms}
+     * this virtual selection on each zoom event. The listener is registered under the <code>zoom.gwtd3virtual</code>
+     * type, so that the other zoom listeners of the behavior are kept.
+     *
+     * @param zoom
+     *            the zoom behavior
+     * @return the zoom behavior
+     */
+    public native Zoom zoom(Zoom zoom)/*-{
+		var self = this;
+		return zoom.on('zoom.gwtd3virtual', function() {
+			var event = $wnd.d3.event;
+			self.@com.github.gwtd3.api.core.VirtualSelection::transform(DDD)(event.translate[0], event.translate[1], event.scale);
+		});
+    }-*/;
+
+    /**
+     * Joins the visible data with the elements of the container, and applies the enter and update functions.
+     *
+     * @return this virtual selection
+     */
+    public VirtualSelection render() {
+        if (data == null) {
+            return this;
+        }
+        JavaScriptObject visible = visible(data, ys, index, x0 - margin, y0 - margin, x1 + margin, y1 + margin);
+        UpdateSelection update = container.selectAll(tagName).data(visible);
+        Selection entered = update.enter().append(tagName);
+        if (enterFunction != null) {
+            enterFunction.apply(entered);
+        }
+        update.exit().remove();
+        if (updateFunction != null) {
+            updateFunction.apply(update);
+        }
+        visibleCount = update.size();
+        return this;
+    }
+
+    /**
+     * @return the number of elements currently in the DOM
+     */
+    public int visibleCount() {
+        return visibleCount;
+    }
+
+    /**
+     * @return the selection of the elements currently in the DOM
+     */
+    public Selection selection() {
+        return container.selectAll(tagName);
+    }
+
+    private static final native JavaScriptObject positions(JavaScriptObject data, DatumFunction<Double> accessor)/*-{
+		var n = data.length, positions = new Array(n);
+		if (typeof accessor == 'function') {
+			for (var i = 0; i < n; i++) {
+				positions[i] = +accessor(data[i], i);
+			}
+		} else {
+			for (var i = 0; i < n; i++) {
+				positions[i] = +accessor.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(null,{datum:data[i]},i);
+			}
+		}
+		return positions;
+    }-*/;
+
+    /**
+     * Returns the indices of the data with a valid position, sorted by x, and their sorted x positions.
+     */
+    private static final native JavaScriptObject index(JavaScriptObject xs, JavaScriptObject ys)/*-{
+		var order = [];
+		for (var i = 0, n = xs.length; i < n; i++) {
+			// NaN positions are never visible
+			if (xs[i] === xs[i] && ys[i] === ys[i]) {
+				order.push(i);
+			}
+		}
+		order.sort(function(a, b) {
+			return xs[a] - xs[b];
+		});
+		var m = order.length, sorted = new Float64Array(m);
+		for (var k = 0; k < m; k++) {
+			sorted[k] = xs[order[k]];
+		}
+		return {
+			order : new Uint32Array(order),
+			xs : sorted
+		};
+    }-*/;
+
+    /**
+     * Returns the data within the given window, in the order of the data, by scanning the x range of the window only.
+     */
+    private static final native JavaScriptObject visible(JavaScriptObject data, JavaScriptObject ys,
+            JavaScriptObject index, double x0, double y0, double x1, double y1)/*-{
+		var order = index.order, xs = index.xs, lo = 0, hi = xs.length;
+		while (lo < hi) {
+			var mid = (lo + hi) >>> 1;
+			if (xs[mid] < x0) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		var hits = [];
+		for (var k = lo, n = xs.length; k < n && xs[k] <= x1; k++) {
+			var i = order[k], y = ys[i];
+			if (y >= y0 && y <= y1) {
+				hits.push(i);
+			}
+		}
+		// keep the order of the data, which is the drawing order of the elements
+		hits = new Uint32Array(hits).sort();
+		var visible = new Array(hits.length);
+		for (var j = 0, m = hits.length; j < m; j++) {
+			visible[j] = data[hits[j]];
+		}
+		return visible;
+    }-*/;
+}
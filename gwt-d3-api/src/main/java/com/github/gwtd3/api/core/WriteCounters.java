@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.core;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.dom.client.Element;
+
+/**
+ * Counters of the attribute and style writes of a {@link Selection} in change-detection mode.
+ * <p>
+ * See {@link Selection#dirtyChecked()}.
+ */
+public class WriteCounters extends JavaScriptObject {
+
+    protected WriteCounters() {
+        super();
+    }
+
+    static final native WriteCounters create()/*-{
+		return {
+			written : 0,
+			skipped : 0
+		};
+    }-*/;
+
+    /**
+     * @return the number of writes applied to the DOM
+     */
+    public final native int written()/*-{
+		return this.written;
+    }-*/;
+
+    /**
+     * @return the number of writes skipped because the value did not change
+     */
+    public final native int skipped()/*-{
+		return this.skipped;
+    }-*/;
+
+    /**
+     * Reset both counters to zero.
+     *
+     * @return the counters
+     */
+    public final native WriteCounters reset()/*-{
+		this.written = this.skipped = 0;
+		return this;
+    }-*/;
+
+    /**
+     * Record a write of the given value under the given key for the given node, and tell whether the value differs
+     * from the last one recorded for this node and key.
+     *
+     * @param node
+     *            the node being written
+     * @param key
+     *            the name of the attribute or style, prefixed by its kind
+     * @param value
+     *            the new value, or null for a removal
+     * @return true if the write must be applied to the DOM
+     */
+    final native boolean record(Element node, String key, Object value)/*-{
+		var cache = node.__gwtd3_written__ || (node.__gwtd3_written__ = {});
+		value = value == null ? null : value + '';
+		if (key in cache && cache[key] === value) {
+			this.skipped++;
+			return false;
+		}
+		cache[key] = value;
+		this.written++;
+		return true;
+    }-*/;
+}
@@ -271,6 +271,36 @@ public static final EasingFunction bounce(final Mode mode) {
 		return ease("bounce-" + mode.getValue());
 	}
 
+	/**
+	 * Precomputes the given easing function into a lookup table with the given
+	 * number of intervals, evaluated by linear interpolation.
+	 * <p>
+	 * The table costs the same for any function, and never calls back into
+	 * Java; {@link EasingTable#maxError()} reports the approximation error, so
+	 * the resolution can be raised for functions with sharp turns like bounce.
+	 * 
+	 * @param easing
+	 *            the function to precompute
+	 * @param resolution
+	 *            the number of intervals of the table
+	 * @return the table
+	 */
+	public static final EasingTable table(final EasingFunction easing,
+			final int resolution) {
+		return EasingTable.create(easing, resolution);
+	}
+
+	/**
+	 * Same as {@link #table(EasingFunction, int)} with 256 intervals.
+	 * 
+	 * @param easing
+	 *            the function to precompute
+	 * @return the table
+	 */
+	public static final EasingTable table(final EasingFunction easing) {
+		return table(easing, 256);
+	}
+
 	private static final native JavascriptEasingFunction ease(String type)/*-{
 		return $wnd.d3.ease(type);
 	}-*/;
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.ease;
+
+/**
+ * An easing function precomputed into a lookup table of fixed resolution, and evaluated by linear interpolation
+ * between the two closest samples.
+ * <p>
+ * Whatever the cost of the original function, like elastic, bounce or a custom Java {@link EasingFunction}, a table
+ * is evaluated in constant time without calling back into Java, which makes it suitable for large simultaneous
+ * transitions. The approximation error is measured when the table is built, see {@link #maxError()}.
+ * <p>
+ * Tables are created with {@link Easing#table(EasingFunction, int)}. The parametric time is clamped to [0,1].
+ */
+public class EasingTable extends JavascriptEasingFunction {
+
+    /**
+     * The number of points between two consecutive samples at which the error is measured.
+     */
+    private static final int ERROR_SUBSAMPLES = 8;
+
+    protected EasingTable() {
+    }
+
+    /**
+     * @return the number of intervals of the table; the table holds one more sample
+     */
+    public final native int resolution()/*-{
+		return this.resolution;
+    }-*/;
+
+    /**
+     * Returns the maximum absolute difference between the table and the original function, measured at several
+     * points between each pair of samples when the table was built.
+     *
+     * @return the maximum approximation error
+     */
+    public final native double maxError()/*-{
+		return this.maxError;
+    }-*/;
+
+    static final native EasingTable create(EasingFunction easing, int resolution)/*-{
+		var exact = typeof easing == 'function' ? easing : function(t) {
+			return easing.@com.github.gwtd3.api.ease.EasingFunction::ease(D)(t);
+		};
+		var n = Math.max(1, resolution), values = new Float64Array(n + 1);
+		for (var i = 0; i <= n; i++) {
+			values[i] = exact(i / n);
+		}
+		var table = function(t) {
+			if (!(t > 0)) {
+				return values[0];
+			}
+			if (t >= 1) {
+				return values[n];
+			}
+			var x = t * n, i = x | 0;
+			return values[i] + (values[i + 1] - values[i]) * (x - i);
+		};
+		var m = @com.github.gwtd3.api.ease.EasingTable::ERROR_SUBSAMPLES, maxError = 0;
+		for (var i = 0; i < n; i++) {
+			for (var k = 1; k < m; k++) {
+				var t = (i + k / m) / n;
+				maxError = Math.max(maxError, Math.abs(exact(t) - table(t)));
+			}
+		}
+		table.resolution = n;
+		table.maxError = maxError;
+		return table;
+    }-*/;
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.functions;
+
+import com.github.gwtd3.api.core.Attributes;
+import com.github.gwtd3.api.core.Selection;
+import com.github.gwtd3.api.core.Value;
+import com.google.gwt.dom.client.Element;
+
+/**
+ * A function computing several attributes of an element at once, by filling the given {@link Attributes} record.
+ * <p>
+ * Instances of this function are used with {@link Selection#attrs(AttributesFunction)}.
+ */
+public interface AttributesFunction {
+
+    /**
+     * Apply the function for the given {@link Element} at the specified index of the {@link Selection} mapped to the
+     * given {@link Value}.
+     * <p>
+     * The {@link Value} and {@link Attributes} instances are reused for each element of the selection, and must not be
+     * retained.
+     *
+     * @param context
+     *            the current element
+     * @param d
+     *            the datum
+     * @param index
+     *            the index of the element in the selection
+     * @param attributes
+     *            the empty record to fill with the attributes of the element
+     */
+    void apply(Element context, Value d, int index, Attributes attributes);
+}
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.functions;
+
+import com.github.gwtd3.api.D3;
+import com.github.gwtd3.api.behaviour.Drag;
+import com.github.gwtd3.api.behaviour.Zoom;
+import com.github.gwtd3.api.core.Selection;
+import com.github.gwtd3.api.core.Value;
+import com.github.gwtd3.api.svg.Brush;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.dom.client.Node;
+
+/**
+ * A listener wrapping another listener, and invoking it at most once per animation frame with the arguments and the
+ * {@link D3#event()} of the last event received during the frame.
+ * <p>
+ * This is meant for the high rate events, such as mousemove or touchmove events registered with
+ * {@link Selection#on(String, DatumFunction)}, or the events of {@link Zoom}, {@link Drag} and {@link Brush}
+ * behaviors, which may be dispatched several times per frame:
+ *
+ * <pre>
+ * selection.on(&quot;mousemove&quot;, new CoalescingDatumFunction(listener));
+ * </pre>
+ * <p>
+ * While the wrapped listener is invoked, {@link D3#event()} returns the last event, so that {@link D3#mouse(Node)} and
+ * the event objects of the behaviors can still be used. However, the wrapped listener is invoked after the event was
+ * dispatched: it can't prevent the default action or stop the propagation of the event. The events replaced by a more
+ * recent one in the same frame are counted by {@link #dropped()}.
+ */
+public class CoalescingDatumFunction implements DatumFunction<Void> {
+
+    private final DatumFunction<Void> delegate;
+
+    private boolean scheduled;
+
+    private Element context;
+
+    private Value datum;
+
+    private int index;
+
+    private JavaScriptObject event;
+
+    private int delivered;
+
+    private int dropped;
+
+    /**
+     * Create a listener coalescing the events of a frame for the given listener.
+     *
+     * @param delegate
+     *            the listener invoked once per frame
+     */
+    public CoalescingDatumFunction(final DatumFunction<Void> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Void apply(final Element context, final Value d, final int index) {
+        if (scheduled) {
+            dropped++;
+        }
+        this.context = context;
+        this.datum = d;
+        this.index = index;
+        this.event = currentEvent();
+        if (!scheduled) {
+            scheduled = true;
+            requestFrame();
+        }
+        return null;
+    }
+
+    /**
+     * Invokes the wrapped listener immediately with the last event received, if any, instead of waiting for the next
+     * animation frame.
+     */
+    public void flush() {
+        if (!scheduled) {
+            return;
+        }
+        scheduled = false;
+        delivered++;
+        Element context = this.context;
+        Value datum = this.datum;
+        JavaScriptObject event = this.event;
+        this.context = null;
+        this.datum = null;
+        this.event = null;
+        deliver(delegate, context, datum, index, event);
+    }
+
+    /**
+     * @return the number of times the wrapped listener was invoked
+     */
+    public int delivered() {
+        return delivered;
+    }
+
+    /**
+     * @return the number of events replaced by a more recent one before the wrapped listener was invoked
+     */
+    public int dropped() {
+        return dropped;
+    }
+
+    /**
+     * Reset the counters to zero.
+     */
+    public void resetCounters() {
+        delivered = dropped = 0;
+    }
+
+    private native void requestFrame()/*-{
+		var self = this;
+		$wnd.requestAnimationFrame($entry(function() {
+			self.@com.github.gwtd3.api.functions.CoalescingDatumFunction::flush()();
+		}));
+    }-*/;
+
+    private static native JavaScriptObject currentEvent()/*-{
+		return $wnd.d3.event;
+    }-*/;
+
+    private static native void deliver(DatumFunction<Void> delegate, Element context, Value datum, int index,
+            JavaScriptObject event)/*-{
+		var previous = $wnd.d3.event;
+		$wnd.d3.event = event;
+		try {
+			delegate.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(context, datum, index);
+		} finally {
+			$wnd.d3.event = previous;
+		}
+    }-*/;
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.functions;
+
+import com.github.gwtd3.api.core.Selection;
+import com.github.gwtd3.api.core.Value;
+import com.google.gwt.dom.client.Element;
+
+/**
+ * A {@link DatumFunction} accepting to be passed the same {@link Value} instance for every element of a selection
+ * pass.
+ * <p>
+ * By default, the mutator functions of {@link Selection} wrap each datum into a new {@link Value} before invoking the
+ * callback. When the callback implements this interface, a single {@link Value} is created for the whole operation
+ * and its wrapped datum is replaced before each invocation, so a redraw does not allocate any object per element.
+ * <p>
+ * As a consequence, the {@link Value} passed to {@link #apply(Element, Value, int)} is only valid during the call:
+ * implementations must not keep a reference to it, but may keep the result of {@link Value#as()} or any other as*()
+ * method.
+ * 
+ * @param <T>
+ *            the type of the result
+ */
+public interface FlyweightDatumFunction<T> extends DatumFunction<T> {
+
+}
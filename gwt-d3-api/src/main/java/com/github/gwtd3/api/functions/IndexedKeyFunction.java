@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.functions;
+
+import com.github.gwtd3.api.core.Selection;
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * A {@link KeyFunction} whose keys only depend on the datum, which lets {@link Selection#data} keep a persistent key
+ * index between the joins.
+ * <p>
+ * When joining data with such a function, the key of each element is cached on the element, and remains valid as long
+ * as the data bound to the element does not change; the keys of the joined data are remembered on the parent node until
+ * the next join made with the same function instance under this parent. As a result, the function is only called for
+ * the data which were not part of the previous join, instead of being called for every element and every datum, and
+ * repeated joins on large, mostly stable datasets become cheap.
+ * <p>
+ * Implementations must therefore return the same key for the same datum, whatever the element, the array and the index
+ * passed to {@link #map(com.google.gwt.dom.client.Element, com.github.gwtd3.api.arrays.Array, com.github.gwtd3.api.core.Value, int)}.
+ * The same instance should be reused for the successive joins.
+ *
+ * @see Selection#data(JavaScriptObject, KeyFunction)
+ *
+ * @param <T>
+ *            the type of the key
+ */
+public interface IndexedKeyFunction<T> extends KeyFunction<T> {
+
+}
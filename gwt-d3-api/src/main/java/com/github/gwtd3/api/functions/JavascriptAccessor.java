@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.functions;
+
+import com.github.gwtd3.api.core.Selection;
+import com.github.gwtd3.api.core.Value;
+import com.github.gwtd3.api.scales.Scale;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.dom.client.Element;
+
+/**
+ * A {@link DatumFunction} implemented as a plain Javascript function, such as
+ * <code>function(d) { return d.x; }</code>.
+ * <p>
+ * The operators of {@link Selection}, the svg generators and the geom and layout objects recognize this function
+ * and hand it directly to d3, so that d3 never calls back into Java while evaluating it. This is the cheapest way to
+ * read a field of the data in tight loops, like the coordinates of a scatterplot or of a Voronoi overlay.
+ * <p>
+ * Instances are created with the static factory methods of this class. They can still be invoked from Java with
+ * {@link #apply(Element, Value, int)}.
+ *
+ * @param <T>
+ *            the type of the result
+ */
+public class JavascriptAccessor<T> extends JavaScriptObject implements DatumFunction<T> {
+
+    protected JavascriptAccessor() {
+        super();
+    }
+
+    /**
+     * Create an accessor returning the value of the given property of each datum:
+     * <code>function(d) { return d[name]; }</code>.
+     *
+     * @param name
+     *            the name of the property
+     * @return the accessor
+     */
+    public static final native <T> JavascriptAccessor<T> property(String name)/*-{
+		return function(d) {
+			return d[name];
+		};
+    }-*/;
+
+    /**
+     * Create an accessor returning a linear transformation of the given property of each datum:
+     * <code>function(d) { return d[name] * k + b; }</code>.
+     *
+     * @param name
+     *            the name of the property
+     * @param k
+     *            the factor
+     * @param b
+     *            the offset
+     * @return the accessor
+     */
+    public static final native JavascriptAccessor<Double> linear(String name, double k, double b)/*-{
+		return function(d) {
+			return d[name] * k + b;
+		};
+    }-*/;
+
+    /**
+     * Create an accessor returning the given property of each datum passed through the given scale:
+     * <code>function(d) { return scale(d[name]); }</code>.
+     *
+     * @param name
+     *            the name of the property
+     * @param scale
+     *            the scale to apply to the value of the property
+     * @return the accessor
+     */
+    public static final native <T> JavascriptAccessor<T> property(String name, Scale<?> scale)/*-{
+		return function(d) {
+			return scale(d[name]);
+		};
+    }-*/;
+
+    /**
+     * Create an accessor returning a linear transformation of the index of each element:
+     * <code>function(d, i) { return i * k + b; }</code>.
+     *
+     * @param k
+     *            the factor
+     * @param b
+     *            the offset
+     * @return the accessor
+     */
+    public static final native JavascriptAccessor<Double> index(double k, double b)/*-{
+		return function(d, i) {
+			return i * k + b;
+		};
+    }-*/;
+
+    @Override
+    public final native T apply(Element context, Value d, int index)/*-{
+		return this.call(context, d.datum, index);
+    }-*/;
+}
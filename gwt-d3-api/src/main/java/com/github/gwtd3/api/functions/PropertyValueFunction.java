@@ -29,13 +29,15 @@
 package com.github.gwtd3.api.functions;
 
 import com.github.gwtd3.api.core.Value;
-import com.google.gwt.core.shared.GWT;
 import com.google.gwt.dom.client.Element;
 
 /**
  * A convenient {@link DatumFunction} which returns the value of a specified property
  * for each datum.
  * <p>
+ * This function is evaluated in Java for each datum; prefer
+ * {@link JavascriptAccessor#property(String)} when the function is only
+ * passed to d3, as it is then evaluated without calling back into Java.
  * 
  * @author <a href="mailto:schiochetanthoni@gmail.com">Anthony Schiochet</a>
  *
@@ -62,9 +64,7 @@ public PropertyValueFunction(final String propertyName) {
 
 	@Override
 	public T apply(final Element context, final Value d, final int index) {
-		Value value = getProperty(propertyName, d);
-		GWT.log("value" + value.<T>as());
-		return value.as();
+		return getProperty(propertyName, d).as();
 	}
 
 	private static final native Value getProperty(String propName, Value v)/*-{
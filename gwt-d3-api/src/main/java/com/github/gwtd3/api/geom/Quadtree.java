@@ -32,6 +32,7 @@
 
 import com.github.gwtd3.api.arrays.Array;
 import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.DoubleDatumFunction;
 import com.google.gwt.core.client.JavaScriptObject;
 
 /**
@@ -69,12 +70,30 @@ protected Quadtree() {
 	 * @return the current Quadtree
 	 */
 	public final native Quadtree x(DatumFunction<Double> xAccessor)/*-{
+		if (typeof xAccessor == 'function') {
+			return this.x(xAccessor);
+		}
 		return this
 				.x(function(d, i) {
 					return xAccessor.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
 				});
 	}-*/;
 
+	/**
+	 * Sets the x-coordinate accessor to a function returning the x coordinate
+	 * of each point as a double.
+	 *
+	 * @param callback
+	 *            the function returning the x coordinate of each point
+	 * @return the current quadtree
+	 */
+	public final native Quadtree xDouble(final DoubleDatumFunction callback)/*-{
+		return this
+				.x(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+	}-*/;
+
 	/**
 	 * Sets the y-coordinate accessor.
 	 * <p>
@@ -87,12 +106,30 @@ public final native Quadtree x(DatumFunction<Double> xAccessor)/*-{
 	 */
 
 	public final native Quadtree y(DatumFunction<Double> yAccessor)/*-{
+		if (typeof yAccessor == 'function') {
+			return this.y(yAccessor);
+		}
 		return this
 				.y(function(d, i) {
 					return yAccessor.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
 				});
 	}-*/;
 
+	/**
+	 * Sets the y-coordinate accessor to a function returning the y coordinate
+	 * of each point as a double.
+	 *
+	 * @param callback
+	 *            the function returning the y coordinate of each point
+	 * @return the current quadtree
+	 */
+	public final native Quadtree yDouble(final DoubleDatumFunction callback)/*-{
+		return this
+				.y(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+	}-*/;
+
 	/**
 	 * Constructs a new quadtree for the specified array of points.
 	 * <p>
@@ -30,6 +30,7 @@
 
 import com.github.gwtd3.api.arrays.Array;
 import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.DoubleDatumFunction;
 import com.github.gwtd3.api.layout.HierarchicalLayout.Link;
 import com.google.gwt.core.client.JavaScriptObject;
 
@@ -124,12 +125,29 @@ public final native <T> Array<T> apply(Array<T> vertices)/*-{
      * @return the current layout
      */
     public final native Voronoi x(DatumFunction<Double> xAccessor)/*-{
+		if (typeof xAccessor == 'function') {
+			return this.x(xAccessor);
+		}
 		return this
 				.x(function(d, i) {
 					return xAccessor.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
 				});
     }-*/;
 
+    /**
+     * Sets the x-coordinate accessor to a function returning the x coordinate of each point as a double.
+     *
+     * @param callback
+     *            the function returning the x coordinate of each point
+     * @return the current voronoi
+     */
+    public final native Voronoi xDouble(final DoubleDatumFunction callback)/*-{
+		return this
+				.x(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+    }-*/;
+
     /**
      * Sets the y-coordinate accessor.
      * <p>
@@ -141,12 +159,29 @@ public final native Voronoi x(DatumFunction<Double> xAccessor)/*-{
      */
 
     public final native Voronoi y(DatumFunction<Double> yAccessor)/*-{
+		if (typeof yAccessor == 'function') {
+			return this.y(yAccessor);
+		}
 		return this
 				.y(function(d, i) {
 					return yAccessor.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
 				});
     }-*/;
 
+    /**
+     * Sets the y-coordinate accessor to a function returning the y coordinate of each point as a double.
+     *
+     * @param callback
+     *            the function returning the y coordinate of each point
+     * @return the current voronoi
+     */
+    public final native Voronoi yDouble(final DoubleDatumFunction callback)/*-{
+		return this
+				.y(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+    }-*/;
+
     /**
      * TODO: make a demo from http://bl.ocks.org/mbostock/1073373 TODO:
      * documentation
@@ -35,6 +35,9 @@
  * <p>
  * This is useful when you want to create an implementation of {@link Interpolator} in Java that must be used in JSNI side.
  * <p>
+ * Note that the interpolator is called for each element on each frame of a transition: the common tweens of numbers,
+ * colors, transforms and points are cheaper as {@link com.github.gwtd3.api.tweens.JavascriptTween}s.
+ * <p>
  * 
  * @author Anthony Schiochet (schiochetanthoni@gmail.com)
  * 
@@ -34,6 +34,7 @@
 import com.github.gwtd3.api.behaviour.Drag;
 import com.github.gwtd3.api.core.Selection;
 import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.DoubleDatumFunction;
 import com.google.gwt.core.client.JavaScriptObject;
 
 /**
@@ -332,6 +333,9 @@ public final native Force<T> linkDistance(double distance) /*-{
      * @return the force layout object.
      */
     public final native Force<T> linkDistance(DatumFunction<Double> callback) /*-{
+		if (typeof callback == 'function') {
+			return this.linkDistance(callback);
+		}
 		try {
 			return this
 					.linkDistance(function(d, i) {
@@ -347,6 +351,21 @@ public final native Force<T> linkDistance(DatumFunction<Double> callback) /*-{
 		}
     }-*/;
 
+    /**
+     * Sets the target distance of each link to the double returned by the given function, evaluated when the layout
+     * starts.
+     *
+     * @param callback
+     *            the function returning the distance of each link
+     * @return the force layout object.
+     */
+    public final native Force<T> linkDistanceDouble(final DoubleDatumFunction callback)/*-{
+		return this
+				.linkDistance(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+    }-*/;
+
     /**
      * @return the layout's current link strength, which defaults to 1.
      */
@@ -374,6 +393,9 @@ public final native Force<T> linkStrength(double strength) /*-{
      * @return the force layout object.
      */
     public final native Force<T> linkStrength(DatumFunction<Double> callback) /*-{
+		if (typeof callback == 'function') {
+			return this.linkStrength(callback);
+		}
 		try {
 			return this
 					.linkStrength(function(d, i) {
@@ -389,6 +411,21 @@ public final native Force<T> linkStrength(DatumFunction<Double> callback) /*-{
 		}
     }-*/;
 
+    /**
+     * Sets the strength of each link, in the range [0,1], to the double returned by the given function, evaluated when
+     * the layout starts.
+     *
+     * @param callback
+     *            the function returning the strength of each link
+     * @return the force layout object.
+     */
+    public final native Force<T> linkStrengthDouble(final DoubleDatumFunction callback)/*-{
+		return this
+				.linkStrength(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+    }-*/;
+
     /**
      * @return the current friction coefficient, which defaults to 0.9.
      */
@@ -452,6 +489,9 @@ public final native Force<T> charge(double x) /*-{
      * @return the force layout object.
      */
     public final native Force<T> charge(DatumFunction<Double> callback) /*-{
+		if (typeof callback == 'function') {
+			return this.charge(callback);
+		}
 		try {
 			return this
 					.charge(function(d, i) {
@@ -468,6 +508,20 @@ public final native Force<T> charge(DatumFunction<Double> callback) /*-{
 		}
     }-*/;
 
+    /**
+     * Sets the charge of each node to the double returned by the given function, evaluated when the layout starts.
+     *
+     * @param callback
+     *            the function returning the charge of each node
+     * @return the force layout object.
+     */
+    public final native Force<T> chargeDouble(final DoubleDatumFunction callback)/*-{
+		return this
+				.charge(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+    }-*/;
+
     /**
      * @return he current maximum charge distance, which defaults to infinity.
      */
@@ -770,6 +824,10 @@ public final native void tick() /*-{
      * nodes on every tick. If you prefer, you can display nodes and links differently; for example, you might use
      * symbols rather than circles. <br>
      * <p>
+     * From Java, prefer {@link Selection#attrs(com.github.gwtd3.api.functions.AttributesFunction)} to set all the
+     * attributes of a node or a link in a tick handler: the selection is then traversed once per tick instead of once
+     * per attribute, with a single callback into Java for each element. <br>
+     * <p>
      * The "end" event is dispatched when the simulations internal alpha cooling parameter reaches zero.
      *
      * @param type the type of event to listen to
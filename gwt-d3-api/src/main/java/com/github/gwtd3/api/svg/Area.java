@@ -31,6 +31,7 @@
 import com.github.gwtd3.api.core.Value;
 import com.github.gwtd3.api.functions.BooleanDatumFunction;
 import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.DoubleDatumFunction;
 import com.github.gwtd3.api.utils.Utils;
 import com.google.gwt.dom.client.Element;
 
@@ -161,12 +162,29 @@ public final native Area interpolate(final InterpolationMode i) /*-{
      * @return
      */
     public final native Area x(final DatumFunction<Double> callback)/*-{
+		if (typeof callback == 'function') {
+			return this.x(callback);
+		}
 		return this
 				.x(function(d, i) {
 					return callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
 				});
     }-*/;
 
+    /**
+     * Sets both the x0 and x1 accessors to a function returning the x coordinate of each point as a double.
+     *
+     * @param callback
+     *            the function returning the x coordinate of each datum
+     * @return the current area
+     */
+    public final native Area xDouble(final DoubleDatumFunction callback)/*-{
+		return this
+				.x(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+    }-*/;
+
     // should create a JSO impl of DatumFunction calling himself
     // public final native DatumFunction<Double> x()/*-{
     // return this.x();
@@ -198,12 +216,29 @@ public final native Area x0(double d) /*-{
      * @return
      */
     public final native Area x0(final DatumFunction<Double> callback)/*-{
+		if (typeof callback == 'function') {
+			return this.x0(callback);
+		}
 		return this
 				.x0(function(d, i) {
 					return callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
 				});
     }-*/;
 
+    /**
+     * Sets the x0-accessor to a function returning the x coordinate of the baseline of each point as a double.
+     *
+     * @param callback
+     *            the function returning the x0 coordinate of each datum
+     * @return the current area
+     */
+    public final native Area x0Double(final DoubleDatumFunction callback)/*-{
+		return this
+				.x0(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+    }-*/;
+
     /**
      * Set the x1 coordinates of points generated by this generator.
      *
@@ -220,12 +255,29 @@ public final native Area x1(double d) /*-{
      * @return
      */
     public final native Area x1(final DatumFunction<Double> callback)/*-{
+		if (typeof callback == 'function') {
+			return this.x1(callback);
+		}
 		return this
 				.x1(function(d, i) {
 					return callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
 				});
     }-*/;
 
+    /**
+     * Sets the x1-accessor to a function returning the x coordinate of the topline of each point as a double.
+     *
+     * @param callback
+     *            the function returning the x1 coordinate of each datum
+     * @return the current area
+     */
+    public final native Area x1Double(final DoubleDatumFunction callback)/*-{
+		return this
+				.x1(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+    }-*/;
+
     /**
      * Set the y coordinates of points generated by this generator.
      *
@@ -268,12 +320,29 @@ public final native Area y1(double d) /*-{
      * @return the current area
      */
     public final native Area y(final DatumFunction<Double> callback) /*-{
+		if (typeof callback == 'function') {
+			return this.y(callback);
+		}
 		return this
 				.y(function(d, i) {
 					return callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
 				});
     }-*/;
 
+    /**
+     * Sets both the y0 and y1 accessors to a function returning the y coordinate of each point as a double.
+     *
+     * @param callback
+     *            the function returning the y coordinate of each datum
+     * @return the current area
+     */
+    public final native Area yDouble(final DoubleDatumFunction callback)/*-{
+		return this
+				.y(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+    }-*/;
+
     /**
      * See {@link #y(DatumFunction)}.
      * <p>
@@ -286,12 +355,29 @@ public final native Area y(final DatumFunction<Double> callback) /*-{
      * @return the current area
      */
     public final native Area y0(final DatumFunction<Double> callback) /*-{
+		if (typeof callback == 'function') {
+			return this.y0(callback);
+		}
 		return this
 				.y0(function(d, i) {
 					return callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
 				});
     }-*/;
 
+    /**
+     * Sets the y0-accessor to a function returning the y coordinate of the baseline of each point as a double.
+     *
+     * @param callback
+     *            the function returning the y0 coordinate of each datum
+     * @return the current area
+     */
+    public final native Area y0Double(final DoubleDatumFunction callback)/*-{
+		return this
+				.y0(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+    }-*/;
+
     /**
      * See {@link #y(DatumFunction)}.
      * <p>
@@ -304,12 +390,29 @@ public final native Area y0(final DatumFunction<Double> callback) /*-{
      * @return the current area
      */
     public final native Area y1(final DatumFunction<Double> callback) /*-{
+		if (typeof callback == 'function') {
+			return this.y1(callback);
+		}
 		return this
 				.y1(function(d, i) {
 					return callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
 				});
     }-*/;
 
+    /**
+     * Sets the y1-accessor to a function returning the y coordinate of the topline of each point as a double.
+     *
+     * @param callback
+     *            the function returning the y1 coordinate of each datum
+     * @return the current area
+     */
+    public final native Area y1Double(final DoubleDatumFunction callback)/*-{
+		return this
+				.y1(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+    }-*/;
+
     /**
      * FIXME: D3 bug ??? Does not seem to work...
      *
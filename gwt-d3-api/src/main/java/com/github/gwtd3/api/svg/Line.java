@@ -34,6 +34,7 @@
 import com.github.gwtd3.api.core.Value;
 import com.github.gwtd3.api.functions.BooleanDatumFunction;
 import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.DoubleDatumFunction;
 import com.github.gwtd3.api.utils.Utils;
 import com.google.gwt.dom.client.Element;
 
@@ -217,12 +218,29 @@ public final native Line x(double d) /*-{
      * @return
      */
     public final native Line x(final DatumFunction<Double> callback)/*-{
+		if (typeof callback == 'function') {
+			return this.x(callback);
+		}
 		return this
 				.x(function(d, i) {
 					return callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
 				});
     }-*/;
 
+    /**
+     * Sets the x-accessor to a function returning the x coordinate of each point as a double.
+     *
+     * @param callback
+     *            the function returning the x coordinate of each datum
+     * @return the current line
+     */
+    public final native Line xDouble(final DoubleDatumFunction callback)/*-{
+		return this
+				.x(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+    }-*/;
+
     // should create a JSO impl of DatumFunction calling himself
     // public final native DatumFunction<Double> x()/*-{
     // return this.x();
@@ -250,12 +268,29 @@ public final native Line y(double d) /*-{
      * @return
      */
     public final native Line y(final DatumFunction<Double> callback) /*-{
+		if (typeof callback == 'function') {
+			return this.y(callback);
+		}
 		return this
 				.y(function(d, i) {
 					return callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
 				});
     }-*/;
 
+    /**
+     * Sets the y-accessor to a function returning the y coordinate of each point as a double.
+     *
+     * @param callback
+     *            the function returning the y coordinate of each datum
+     * @return the current line
+     */
+    public final native Line yDouble(final DoubleDatumFunction callback)/*-{
+		return this
+				.y(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+    }-*/;
+
     /**
      * Sets the function used to controls where the line is defined.
      * <p>
@@ -36,6 +36,8 @@
 import com.github.gwtd3.api.IsFunction;
 import com.github.gwtd3.api.arrays.Array;
 import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.JavascriptAccessor;
+import com.google.gwt.canvas.dom.client.Context2d;
 import com.google.gwt.core.client.JavaScriptObject;
 
 /**
@@ -71,6 +73,19 @@
  * }
  * </pre>
  * <p>
+ * Generators may also render directly into a canvas {@link Context2d} with {@link #fill(Context2d, JavaScriptObject)},
+ * {@link #stroke(Context2d, JavaScriptObject)} or {@link #fillEach(Context2d, JavaScriptObject, DatumFunction,
+ * DatumFunction)}, using the same accessors and interpolation modes as for the SVG path, but without creating any DOM
+ * node:
+ *
+ * <pre>
+ * {@code
+ * Context2d context = canvas.getContext2d();
+ * context.setStrokeStyle("steelblue");
+ * line.stroke(context, data);
+ * }
+ * </pre>
+ * <p>
  *
  * @see <a href="https://github.com/mbostock/d3/wiki/SVG-Shapes#path-data-generators">Official API</a>
  *
@@ -144,4 +159,238 @@ public final String generate(final double... data) {
     public final native String generate(JavaScriptObject data, int index) /*-{
 		return this(data, index);
     }-*/;
+
+    // ================ canvas rendering ================
+
+    /**
+     * Trace the path generated for the given data into the current path of the given context, after clearing it with
+     * <code>beginPath()</code>.
+     * <p>
+     * The context can then be filled, stroked, clipped or hit-tested with <code>isPointInPath</code> by the caller.
+     * Unlike {@link #fill(Context2d, JavaScriptObject)} and {@link #stroke(Context2d, JavaScriptObject)}, the path
+     * commands are replayed one by one on the context instead of being parsed natively into a Path2D.
+     *
+     * @param context
+     *            the context to trace the path in
+     * @param data
+     *            the data, as for {@link #generate(JavaScriptObject)}
+     * @return the current generator
+     */
+    public final native PathDataGenerator trace(Context2d context, JavaScriptObject data) /*-{
+		context.beginPath();
+		@com.github.gwtd3.api.svg.PathDataGenerator::replay(Lcom/google/gwt/canvas/dom/client/Context2d;Ljava/lang/String;)(context, this(data));
+		return this;
+    }-*/;
+
+    /**
+     * Fill the path generated for the given data with the current fill style of the context.
+     *
+     * @param context
+     *            the context to draw in
+     * @param data
+     *            the data, as for {@link #generate(JavaScriptObject)}
+     * @return the current generator
+     */
+    public final PathDataGenerator fill(final Context2d context, final JavaScriptObject data) {
+        return draw(context, data, 0, true);
+    }
+
+    /**
+     * Same as {@link #fill(Context2d, JavaScriptObject)}, passing the given index to the accessor functions.
+     *
+     * @param context
+     *            the context to draw in
+     * @param data
+     *            the data, as for {@link #generate(JavaScriptObject, int)}
+     * @param index
+     *            an index to be passed to each accessor functions
+     * @return the current generator
+     */
+    public final PathDataGenerator fill(final Context2d context, final JavaScriptObject data,
+            final int index) {
+        return draw(context, data, index, true);
+    }
+
+    /**
+     * Stroke the path generated for the given data with the current stroke style and line width of the context.
+     *
+     * @param context
+     *            the context to draw in
+     * @param data
+     *            the data, as for {@link #generate(JavaScriptObject)}
+     * @return the current generator
+     */
+    public final PathDataGenerator stroke(final Context2d context, final JavaScriptObject data) {
+        return draw(context, data, 0, false);
+    }
+
+    /**
+     * Same as {@link #stroke(Context2d, JavaScriptObject)}, passing the given index to the accessor functions.
+     *
+     * @param context
+     *            the context to draw in
+     * @param data
+     *            the data, as for {@link #generate(JavaScriptObject, int)}
+     * @param index
+     *            an index to be passed to each accessor functions
+     * @return the current generator
+     */
+    public final PathDataGenerator stroke(final Context2d context, final JavaScriptObject data,
+            final int index) {
+        return draw(context, data, index, false);
+    }
+
+    /**
+     * Fill one shape per element of the given array, each one translated to the position returned by the x and y
+     * functions, as in a scatter plot made of {@link Symbol}s.
+     * <p>
+     * The generator is invoked with each element and its index, like the <code>d</code> attribute of a path selection.
+     * Shapes generating the same path data (for instance symbols of the same type and size) share a single cached
+     * Path2D, so drawing tens of thousands of marks does not parse the same path twice. Use {@link JavascriptAccessor}s
+     * for the x and y functions to avoid calling back into Java for each element.
+     *
+     * @param context
+     *            the context to draw in
+     * @param data
+     *            the array of data
+     * @param x
+     *            the function returning the x position of each element
+     * @param y
+     *            the function returning the y position of each element
+     * @return the current generator
+     */
+    public final native PathDataGenerator fillEach(Context2d context, JavaScriptObject data,
+            DatumFunction<Double> x, DatumFunction<Double> y) /*-{
+		var fx = typeof x == 'function' ? x : function(d, i) {
+			return x.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(null,{datum:d},i).@java.lang.Double::doubleValue()();
+		};
+		var fy = typeof y == 'function' ? y : function(d, i) {
+			return y.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(null,{datum:d},i).@java.lang.Double::doubleValue()();
+		};
+		var cache = null;
+		if (typeof $wnd.Map == 'function') {
+			cache = this.__gwtd3_paths__;
+			if (!cache || cache.size > 1024) {
+				cache = this.__gwtd3_paths__ = new $wnd.Map();
+			}
+		}
+		for (var i = 0, n = data.length; i < n; i++) {
+			var d = data[i], px = +fx(d, i), py = +fy(d, i);
+			context.translate(px, py);
+			this.@com.github.gwtd3.api.svg.PathDataGenerator::render(Lcom/google/gwt/canvas/dom/client/Context2d;Ljava/lang/String;ZLcom/google/gwt/core/client/JavaScriptObject;)(context, this(d, i), true, cache);
+			context.translate(-px, -py);
+		}
+		return this;
+    }-*/;
+
+    private final native PathDataGenerator draw(Context2d context, JavaScriptObject data, int index,
+            boolean fill) /*-{
+		this.@com.github.gwtd3.api.svg.PathDataGenerator::render(Lcom/google/gwt/canvas/dom/client/Context2d;Ljava/lang/String;ZLcom/google/gwt/core/client/JavaScriptObject;)(context, this(data, index), fill, null);
+		return this;
+    }-*/;
+
+    /**
+     * Fill or stroke the given path data, using a Path2D when the browser supports it, or replaying the path commands
+     * on the context otherwise.
+     * <p>
+     * The Path2D objects of short paths are kept in the given cache, if any. Only {@link #fillEach} passes a cache: its
+     * marks repeat the same short paths, whereas the paths of lines and areas are long and change on every frame.
+     */
+    private final native void render(Context2d context, String path, boolean fill, JavaScriptObject cache) /*-{
+		if (!path) {
+			return;
+		}
+		if (typeof $wnd.Path2D == 'function') {
+			var p = cache ? cache.get(path) : null;
+			if (!p) {
+				p = new $wnd.Path2D(path);
+				if (cache && path.length <= 256) {
+					cache.set(path, p);
+				}
+			}
+			fill ? context.fill(p) : context.stroke(p);
+		} else {
+			context.beginPath();
+			@com.github.gwtd3.api.svg.PathDataGenerator::replay(Lcom/google/gwt/canvas/dom/client/Context2d;Ljava/lang/String;)(context, path);
+			fill ? context.fill() : context.stroke();
+		}
+    }-*/;
+
+    /**
+     * Replay the absolute commands emitted by the d3 generators (M, L, H, V, C, S, Q, A and Z) on the given context.
+     * Elliptical arcs are assumed to be circular and unrotated, which is the case for {@link Arc}, {@link Chord} and
+     * {@link Symbol}.
+     */
+    private static native void replay(Context2d context, String path) /*-{
+		if (!path) {
+			return;
+		}
+		var tokens = path.match(/[MLHVCSQAZmlhvcsqaz]|[-+]?(?:\d+\.?\d*|\.\d+)(?:[eE][-+]?\d+)?/g);
+		var k = 0, cmd, x = 0, y = 0, x0 = 0, y0 = 0, cx = 0, cy = 0;
+		function next() {
+			return +tokens[k++];
+		}
+		while (k < tokens.length) {
+			if (isNaN(tokens[k])) {
+				cmd = tokens[k++];
+			}
+			switch (cmd) {
+			case 'M':
+				context.moveTo(x0 = x = next(), y0 = y = next());
+				cmd = 'L';
+				break;
+			case 'L':
+				context.lineTo(x = next(), y = next());
+				break;
+			case 'H':
+				context.lineTo(x = next(), y);
+				break;
+			case 'V':
+				context.lineTo(x, y = next());
+				break;
+			case 'C':
+				var x1 = next(), y1 = next();
+				cx = next(); cy = next();
+				context.bezierCurveTo(x1, y1, cx, cy, x = next(), y = next());
+				break;
+			case 'S':
+				var rx = 2 * x - cx, ry = 2 * y - cy;
+				cx = next(); cy = next();
+				context.bezierCurveTo(rx, ry, cx, cy, x = next(), y = next());
+				break;
+			case 'Q':
+				cx = next(); cy = next();
+				context.quadraticCurveTo(cx, cy, x = next(), y = next());
+				break;
+			case 'A':
+				var r = next(), r2 = next(), rotation = next(), large = next(), sweep = next(), x2 = next(), y2 = next();
+				var hx = (x - x2) / 2, hy = (y - y2) / 2, h2 = hx * hx + hy * hy;
+				if (h2 && r) {
+					var f = Math.sqrt(Math.max(0, r * r - h2) / h2) * (large != sweep ? 1 : -1);
+					var ox = (x + x2) / 2 + f * hy, oy = (y + y2) / 2 - f * hx;
+					r = Math.max(r, Math.sqrt(h2));
+					context.arc(ox, oy, r, Math.atan2(y - oy, x - ox), Math.atan2(y2 - oy, x2 - ox), !sweep);
+				}
+				x = x2;
+				y = y2;
+				break;
+			case 'Z':
+			case 'z':
+				context.closePath();
+				x = x0;
+				y = y0;
+				break;
+			default:
+				// relative commands are never emitted by d3 generators
+				return;
+			}
+			if (cmd != 'C' && cmd != 'S') {
+				cx = x;
+				cy = y;
+			}
+			if (cmd == 'Z' || cmd == 'z') {
+				cmd = null;
+			}
+		}
+    }-*/;
 }
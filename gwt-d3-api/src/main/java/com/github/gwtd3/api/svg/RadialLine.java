@@ -29,6 +29,7 @@
 package com.github.gwtd3.api.svg;
 
 import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.DoubleDatumFunction;
 
 /**
  * A line generator where each points may be expressed as radial coordinates.
@@ -66,12 +67,30 @@ public final native RadialLine radius(double d) /*-{
 	 * @return the current line
 	 */
 	public final native RadialLine radius(final DatumFunction<Double> callback)/*-{
+		if (typeof callback == 'function') {
+			return this.radius(callback);
+		}
 		return this
 				.radius(function(d, i) {
 					return callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
 				});
 	}-*/;
 
+	/**
+	 * Sets the radius-accessor to a function returning the radius of each point
+	 * as a double.
+	 *
+	 * @param callback
+	 *            the function returning the radius of each datum
+	 * @return the current line
+	 */
+	public final native RadialLine radiusDouble(final DoubleDatumFunction callback)/*-{
+		return this
+				.radius(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+	}-*/;
+
 	/**
 	 * Set the angle coordinates of points generated by this generator.
 	 * 
@@ -95,10 +114,28 @@ public final native RadialLine angle(double d) /*-{
 	 * @return the current line
 	 */
 	public final native RadialLine angle(final DatumFunction<Double> callback)/*-{
+		if (typeof callback == 'function') {
+			return this.angle(callback);
+		}
 		return this
 				.angle(function(d, i) {
 					return callback.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
 				});
 	}-*/;
 
+	/**
+	 * Sets the angle-accessor to a function returning the angle of each point
+	 * as a double, in radians.
+	 *
+	 * @param callback
+	 *            the function returning the angle of each datum
+	 * @return the current line
+	 */
+	public final native RadialLine angleDouble(final DoubleDatumFunction callback)/*-{
+		return this
+				.angle(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.DoubleDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+	}-*/;
+
 }
@@ -36,6 +36,7 @@
 
 import com.github.gwtd3.api.behaviour.Drag.DragEventType;
 import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.IntDatumFunction;
 
 /**
  * A {@link PathDataGenerator} generating symbols shapes.
@@ -190,10 +191,27 @@ public native final Symbol size(int sizeInSquarePixels)/*-{
      * @return this instance for chaining
      */
     public native final Symbol size(DatumFunction<Integer> sizeAccessorFunction)/*-{
+		if (typeof sizeAccessorFunction == 'function') {
+			return this.size(sizeAccessorFunction);
+		}
 		return this
 				.size(function(d, i) {
 					return sizeAccessorFunction.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
 				});
     }-*/;
 
+    /**
+     * Sets the size of each symbol, in square pixels, to the integer returned by the given function.
+     *
+     * @param callback
+     *            the function returning the size of each symbol, in square pixels
+     * @return the current symbol generator
+     */
+    public final native Symbol sizeInt(final IntDatumFunction callback)/*-{
+		return this
+				.size(function(d, i) {
+					return callback.@com.github.gwtd3.api.functions.IntDatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i);
+				});
+    }-*/;
+
 }
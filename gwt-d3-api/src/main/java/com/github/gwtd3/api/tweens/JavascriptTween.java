@@ -0,0 +1,286 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.api.tweens;
+
+import com.github.gwtd3.api.arrays.Array;
+import com.github.gwtd3.api.core.Transition;
+import com.github.gwtd3.api.core.Value;
+import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.JavascriptAccessor;
+import com.github.gwtd3.api.interpolators.CallableInterpolator;
+import com.github.gwtd3.api.interpolators.Interpolator;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.dom.client.Element;
+
+/**
+ * A {@link TweenFunction} implemented as a plain Javascript function, declared with the static factory methods of
+ * this class for the most common tweens: numbers, colors, transforms and lists of points.
+ * <p>
+ * {@link Transition#attrTween(String, TweenFunction)} and
+ * {@link Transition#styleTween(String, TweenFunction, boolean)} recognize this function and hand it directly to d3:
+ * the starting and ending values are resolved once per element when the transition starts, and the interpolator
+ * returned to d3 is a Javascript closure working on raw numbers, so the animation frames never call back into Java.
+ * On the opposite, a Java {@link TweenFunction} returning a {@link CallableInterpolator} is called for each element on
+ * each frame; it remains the way to express arbitrary tweens.
+ * <p>
+ * Instances can still be invoked from Java with {@link #apply(Element, Value, int, Value)}, the returned interpolator
+ * wrapping the interpolated values in {@link Value}s.
+ *
+ * <pre>
+ * transition.attrTween(&quot;r&quot;, JavascriptTween.number(JavascriptAccessor.property(&quot;radius&quot;)))
+ *         .styleTween(&quot;fill&quot;, JavascriptTween.color(&quot;steelblue&quot;), false);
+ * </pre>
+ */
+public class JavascriptTween extends JavaScriptObject implements TweenFunction<Value> {
+
+    protected JavascriptTween() {
+        super();
+    }
+
+    /**
+     * Create a tween interpolating from the current numeric value of the attribute or style to the given number.
+     *
+     * @param to
+     *            the ending value
+     * @return the tween
+     */
+    public static final native JavascriptTween number(double to)/*-{
+		return function(d, i, a) {
+			var from = parseFloat(a) || 0, delta = to - from;
+			return function(t) {
+				return from + delta * t;
+			};
+		};
+    }-*/;
+
+    /**
+     * Create a tween interpolating between the given numbers, ignoring the current value.
+     *
+     * @param from
+     *            the starting value
+     * @param to
+     *            the ending value
+     * @return the tween
+     */
+    public static final native JavascriptTween number(double from, double to)/*-{
+		var delta = to - from;
+		return function() {
+			return function(t) {
+				return from + delta * t;
+			};
+		};
+    }-*/;
+
+    /**
+     * Create a tween interpolating from the current numeric value of the attribute or style to the given number,
+     * followed by the given unit, such as "px".
+     *
+     * @param to
+     *            the ending value
+     * @param unit
+     *            the unit
+     * @return the tween
+     */
+    public static final native JavascriptTween number(double to, String unit)/*-{
+		return function(d, i, a) {
+			var from = parseFloat(a) || 0, delta = to - from;
+			return function(t) {
+				return (from + delta * t) + unit;
+			};
+		};
+    }-*/;
+
+    /**
+     * Create a tween interpolating from the current numeric value of the attribute or style to the number returned
+     * by the given function for each element when the transition starts. Use a {@link JavascriptAccessor} to avoid
+     * calling back into Java even at the start.
+     *
+     * @param to
+     *            the function returning the ending value
+     * @return the tween
+     */
+    public static final native JavascriptTween number(DatumFunction<Double> to)/*-{
+		return function(d, i, a) {
+			var from = parseFloat(a) || 0;
+			var end = typeof to == 'function' ? +to.call(this, d, i)
+					: to.@com.github.gwtd3.api.functions.DatumFunction::apply(Lcom/google/gwt/dom/client/Element;Lcom/github/gwtd3/api/core/Value;I)(this,{datum:d},i).@java.lang.Double::doubleValue()();
+			var delta = end - from;
+			return function(t) {
+				return from + delta * t;
+			};
+		};
+    }-*/;
+
+    /**
+     * Create a tween interpolating in RGB space from the current color of the attribute or style to the given color.
+     *
+     * @param to
+     *            the ending color, in any format understood by d3.rgb
+     * @return the tween
+     */
+    public static final JavascriptTween color(final String to) {
+        return color(null, to);
+    }
+
+    /**
+     * Create a tween interpolating in RGB space between the given colors. If the starting color is null, the current
+     * color of the attribute or style is used.
+     *
+     * @param from
+     *            the starting color, or null
+     * @param to
+     *            the ending color
+     * @return the tween
+     */
+    public static final native JavascriptTween color(String from, String to)/*-{
+		var rgb = $wnd.d3.rgb, b = rgb(to);
+		return function(d, i, a) {
+			var c = rgb(from == null ? a : from), r = c.r, g = c.g, bl = c.b;
+			var dr = b.r - r, dg = b.g - g, db = b.b - bl;
+			return function(t) {
+				return 'rgb(' + Math.round(r + dr * t) + ',' + Math.round(g + dg * t) + ','
+						+ Math.round(bl + db * t) + ')';
+			};
+		};
+    }-*/;
+
+    /**
+     * Create a tween interpolating from the current transform attribute to the given translation, scale and rotation.
+     * The current skew is kept. See {@link #transform(JavaScriptObject)}.
+     *
+     * @param x
+     *            the ending x offset
+     * @param y
+     *            the ending y offset
+     * @param scale
+     *            the ending uniform scale
+     * @param rotate
+     *            the ending angle in degrees, reached along the shortest path
+     * @return the tween
+     */
+    public static final native JavascriptTween transform(double x, double y, double scale, double rotate)/*-{
+		return @com.github.gwtd3.api.tweens.JavascriptTween::transform(Lcom/google/gwt/core/client/JavaScriptObject;)({
+			translate : [ x, y ],
+			scale : scale,
+			rotate : rotate
+		});
+    }-*/;
+
+    /**
+     * Create a tween interpolating from the current transform attribute to the components of the given object: an
+     * optional <code>translate</code> array of the ending x and y offsets, an optional uniform <code>scale</code> and
+     * an optional <code>rotate</code> angle in degrees, reached along the shortest path. Each value is either a number
+     * or a Javascript function called with the element as <code>this</code> and the datum and the index as arguments.
+     * <p>
+     * The current transform is decomposed once when the transition starts, then each frame formats a transform from
+     * the interpolated numbers. The missing components and the skew keep their current value; the rotation and the
+     * scale are omitted when they are the identity at both ends. The object is read when the transition starts, so it
+     * may be completed after the tween is created.
+     *
+     * @param components
+     *            the ending components
+     * @return the tween
+     */
+    public static final native JavascriptTween transform(JavaScriptObject components)/*-{
+		function value(f, node, d, i, start) {
+			return f == null ? start : +(typeof f == 'function' ? f.call(node, d, i) : f);
+		}
+		return function(d, i, a) {
+			var s = $wnd.d3.transform(a), translate = components.translate;
+			var x0 = s.translate[0], y0 = s.translate[1], r0 = s.rotate, kx0 = s.scale[0], ky0 = s.scale[1], skew = s.skew;
+			var x1 = translate ? value(translate[0], this, d, i, x0) : x0;
+			var y1 = translate ? value(translate[1], this, d, i, y0) : y0;
+			var r1 = value(components.rotate, this, d, i, r0), k1 = value(components.scale, this, d, i, null);
+			if (r1 - r0 > 180) {
+				r0 += 360;
+			} else if (r0 - r1 > 180) {
+				r1 += 360;
+			}
+			var dx = x1 - x0, dy = y1 - y0, dr = r1 - r0;
+			var dkx = k1 == null ? 0 : k1 - kx0, dky = k1 == null ? 0 : k1 - ky0;
+			var rotated = r0 || r1, scaled = kx0 != 1 || ky0 != 1 || (k1 != null && k1 != 1);
+			return function(t) {
+				var transform = 'translate(' + (x0 + dx * t) + ',' + (y0 + dy * t) + ')';
+				if (rotated) {
+					transform += 'rotate(' + (r0 + dr * t) + ')';
+				}
+				if (skew) {
+					transform += 'skewX(' + skew + ')';
+				}
+				if (scaled) {
+					transform += 'scale(' + (kx0 + dkx * t) + ',' + (ky0 + dky * t) + ')';
+				}
+				return transform;
+			};
+		};
+    }-*/;
+
+    /**
+     * Create a tween interpolating a polyline or a polygon, for the <code>d</code> attribute of a path, between two
+     * lists of points given as arrays of [x, y] arrays. The coordinates are copied into typed arrays when the tween is
+     * created; each frame only formats the interpolated coordinates. If the lists have different lengths, the last
+     * point of the shortest one is repeated.
+     *
+     * @param from
+     *            the starting points
+     * @param to
+     *            the ending points
+     * @param closed
+     *            true to close the path
+     * @return the tween
+     */
+    public static final native JavascriptTween points(Array<?> from, Array<?> to, boolean closed)/*-{
+		var n = Math.max(from.length, to.length), xy0 = new Float64Array(2 * n), dxy = new Float64Array(2 * n);
+		for (var k = 0; k < n; k++) {
+			var p0 = from[Math.min(k, from.length - 1)], p1 = to[Math.min(k, to.length - 1)];
+			xy0[2 * k] = p0[0];
+			xy0[2 * k + 1] = p0[1];
+			dxy[2 * k] = p1[0] - p0[0];
+			dxy[2 * k + 1] = p1[1] - p0[1];
+		}
+		var end = closed ? 'Z' : '';
+		return function() {
+			return function(t) {
+				if (!n) {
+					return '';
+				}
+				var path = 'M' + (xy0[0] + dxy[0] * t) + ',' + (xy0[1] + dxy[1] * t);
+				for (var k = 2, m = 2 * n; k < m; k += 2) {
+					path += 'L' + (xy0[k] + dxy[k] * t) + ',' + (xy0[k + 1] + dxy[k + 1] * t);
+				}
+				return path + end;
+			};
+		};
+    }-*/;
+
+    @Override
+    public final native Interpolator<Value> apply(Element context, Value datum, int index, Value value)/*-{
+		return this.call(context, datum.datum, index, value.datum);
+    }-*/;
+}
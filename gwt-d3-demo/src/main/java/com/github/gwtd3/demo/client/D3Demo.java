@@ -39,6 +39,8 @@
 import com.github.gwtd3.demo.client.democases.LorenzSystem;
 import com.github.gwtd3.demo.client.democases.behaviors.DragMultiples;
 import com.github.gwtd3.demo.client.democases.behaviors.ZoomDemo;
+import com.github.gwtd3.demo.client.democases.benchmarks.DatumCallbackBenchmark;
+import com.github.gwtd3.demo.client.democases.benchmarks.TransitionTweenBenchmark;
 import com.github.gwtd3.demo.client.democases.geom.HullDemo;
 import com.github.gwtd3.demo.client.democases.geom.MitchellBestCandidate;
 import com.github.gwtd3.demo.client.democases.geom.VoronoiTessellationDemo;
@@ -136,6 +138,9 @@ public void onUncaughtException(final Throwable e) {
         buttonContainer.add(new DemoButton("Scatterplot Matrix Brushing", ScatterplotMatrixDemo.factory()));
         buttonContainer.add(new DemoButton("Ordinal Brushing", OrdinalBrushingDemo.factory()));
         buttonContainer.add(new DemoButton("Brush Transitions", BrushTransitionsDemo.factory()));
+        // BENCHMARKS
+        buttonContainer.add(new DemoButton("Benchmark: datum callbacks", DatumCallbackBenchmark.factory()));
+        buttonContainer.add(new DemoButton("Benchmark: transition tweens", TransitionTweenBenchmark.factory()));
 
         p.add(buttonContainer);
         container.addWest(p, 200);
@@ -31,6 +31,7 @@
 import com.github.gwtd3.api.Colors;
 import com.github.gwtd3.api.D3;
 import com.github.gwtd3.api.core.Selection;
+import com.github.gwtd3.api.core.TimerQueue;
 import com.github.gwtd3.api.functions.TimerFunction;
 import com.github.gwtd3.api.scales.LinearScale;
 import com.github.gwtd3.demo.client.DemoCase;
@@ -43,7 +44,7 @@
 
 public class LorenzSystem extends FlowPanel implements DemoCase {
 
-	private boolean stopped = false;
+	private TimerQueue.Handle handle;
 	private final int n = 30;
 	private final double width = 960, height = 500;
 	private final double δτ = 0.003, ρ = 28, σ = 10, β = 8 / 3;
@@ -86,7 +87,7 @@ public boolean execute() {
 					context.stroke();
 				}
 				context.restore();
-				return stopped;
+				return false;
 			}
 		};
 		timer = new Timer() {
@@ -100,14 +101,17 @@ public void run() {
 
 	@Override
 	public void start() {
-		stopped = false;
-		D3.timer(timerFunction);
+		// the animation keeps its frame rate when other demos share the queue
+		handle = D3.timerQueue().schedule(timerFunction, TimerQueue.HIGH);
 		timer.scheduleRepeating(100);
 	}
 
 	@Override
 	public void stop() {
-		stopped = true;
+		if (handle != null) {
+			handle.cancel();
+			handle = null;
+		}
 		timer.cancel();
 	}
 
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.demo.client.democases.benchmarks;
+
+import com.github.gwtd3.api.Coords;
+import com.github.gwtd3.api.D3;
+import com.github.gwtd3.api.arrays.Array;
+import com.github.gwtd3.api.core.Selection;
+import com.github.gwtd3.api.core.Value;
+import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.FlyweightDatumFunction;
+import com.github.gwtd3.demo.client.DemoCase;
+import com.github.gwtd3.demo.client.Factory;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.event.dom.client.ClickEvent;
+import com.google.gwt.event.dom.client.ClickHandler;
+import com.google.gwt.user.client.ui.Button;
+import com.google.gwt.user.client.ui.FlowPanel;
+import com.google.gwt.user.client.ui.Label;
+
+/**
+ * Compares the cost of redrawing a large selection with regular {@link DatumFunction}s and with
+ * {@link FlyweightDatumFunction}s.
+ * <p>
+ * Each run redraws all the circles several times, and reports the elapsed time and the growth of the JS heap when the
+ * browser exposes it (performance.memory, Chrome only). Run each variant a few times to let the JIT warm up.
+ */
+public class DatumCallbackBenchmark extends FlowPanel implements DemoCase {
+
+    private static final int ELEMENTS = 50000;
+
+    private static final int REDRAWS = 10;
+
+    private final Label result;
+
+    private Selection circles;
+
+    public DatumCallbackBenchmark() {
+        super();
+        add(new Button("Redraw with DatumFunction", new ClickHandler() {
+            @Override
+            public void onClick(final ClickEvent event) {
+                run("DatumFunction", new DatumFunction<Double>() {
+                    @Override
+                    public Double apply(final Element context, final Value d, final int index) {
+                        return d.<Coords> as().x();
+                    }
+                }, new DatumFunction<Double>() {
+                    @Override
+                    public Double apply(final Element context, final Value d, final int index) {
+                        return d.<Coords> as().y();
+                    }
+                });
+            }
+        }));
+        add(new Button("Redraw with FlyweightDatumFunction", new ClickHandler() {
+            @Override
+            public void onClick(final ClickEvent event) {
+                run("FlyweightDatumFunction", new FlyweightDatumFunction<Double>() {
+                    @Override
+                    public Double apply(final Element context, final Value d, final int index) {
+                        return d.<Coords> as().x();
+                    }
+                }, new FlyweightDatumFunction<Double>() {
+                    @Override
+                    public Double apply(final Element context, final Value d, final int index) {
+                        return d.<Coords> as().y();
+                    }
+                });
+            }
+        }));
+        result = new Label();
+        add(result);
+    }
+
+    @Override
+    public void start() {
+        Array<Coords> data = Array.create();
+        for (int i = 0; i < ELEMENTS; i++) {
+            data.push(Coords.create(Math.random() * 960, Math.random() * 500));
+        }
+        circles = D3.select(this).append("svg").attr("width", 960).attr("height", 500)
+                .selectAll("circle").data(data).enter().append("circle").attr("r", 1);
+    }
+
+    private void run(final String name, final DatumFunction<?> x, final DatumFunction<?> y) {
+        double heap = usedHeapSize();
+        double start = Duration.currentTimeMillis();
+        for (int i = 0; i < REDRAWS; i++) {
+            circles.attr("cx", x).attr("cy", y);
+        }
+        double elapsed = Duration.currentTimeMillis() - start;
+        double allocated = usedHeapSize() - heap;
+        result.setText(name + ": " + Math.round(elapsed / REDRAWS) + " ms per redraw of " + ELEMENTS
+                + " elements" + (heap < 0 ? "" : ", heap growth: " + Math.round(allocated / 1024) + " KB"));
+    }
+
+    /**
+     * @return the used JS heap size in bytes, or -1 if the browser does not expose it
+     */
+    private static native double usedHeapSize()/*-{
+		var p = $wnd.performance;
+		return p && p.memory ? p.memory.usedJSHeapSize : -1;
+    }-*/;
+
+    @Override
+    public void stop() {
+    }
+
+    public static Factory factory() {
+        return new Factory() {
+            @Override
+            public DemoCase newInstance() {
+                return new DatumCallbackBenchmark();
+            }
+        };
+    }
+}
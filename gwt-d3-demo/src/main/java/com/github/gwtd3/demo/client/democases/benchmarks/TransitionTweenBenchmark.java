@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.demo.client.democases.benchmarks;
+
+import com.github.gwtd3.api.Coords;
+import com.github.gwtd3.api.D3;
+import com.github.gwtd3.api.arrays.Array;
+import com.github.gwtd3.api.core.Selection;
+import com.github.gwtd3.api.core.Transition;
+import com.github.gwtd3.api.core.Value;
+import com.github.gwtd3.api.functions.DoubleDatumFunction;
+import com.github.gwtd3.api.functions.StringDatumFunction;
+import com.github.gwtd3.demo.client.DemoCase;
+import com.github.gwtd3.demo.client.Factory;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.event.dom.client.ClickEvent;
+import com.google.gwt.event.dom.client.ClickHandler;
+import com.google.gwt.user.client.ui.Button;
+import com.google.gwt.user.client.ui.FlowPanel;
+import com.google.gwt.user.client.ui.Label;
+
+/**
+ * Compares the frame rate of 10k elements transitioning simultaneously with d3's string interpolation of the
+ * transform attribute ({@link Transition#attrString(String, StringDatumFunction)}) and with the numeric tweens (
+ * {@link Transition#translate(DoubleDatumFunction, DoubleDatumFunction)} and
+ * {@link Transition#attrNumber(String, DoubleDatumFunction)}).
+ * <p>
+ * Each run moves all the circles to new random positions, and reports the number of frames and the longest frame
+ * during the transition.
+ */
+public class TransitionTweenBenchmark extends FlowPanel implements DemoCase {
+
+    private static final int ELEMENTS = 10000;
+
+    private static final int DURATION = 2000;
+
+    private final Label result;
+
+    private Selection circles;
+
+    public TransitionTweenBenchmark() {
+        super();
+        add(new Button("Transition with string interpolation", new ClickHandler() {
+            @Override
+            public void onClick(final ClickEvent event) {
+                shuffle();
+                circles.transition().duration(DURATION).attrString("transform", new StringDatumFunction() {
+                    @Override
+                    public String apply(final Element context, final Value d, final int index) {
+                        Coords c = d.as();
+                        return "translate(" + c.x() + "," + c.y() + ")";
+                    }
+                }).attrDouble("r", new DoubleDatumFunction() {
+                    @Override
+                    public double apply(final Element context, final Value d, final int index) {
+                        return 1 + index % 3;
+                    }
+                });
+                measure("String interpolation", result, DURATION);
+            }
+        }));
+        add(new Button("Transition with numeric tweens", new ClickHandler() {
+            @Override
+            public void onClick(final ClickEvent event) {
+                shuffle();
+                circles.transition().duration(DURATION).translate(new DoubleDatumFunction() {
+                    @Override
+                    public double apply(final Element context, final Value d, final int index) {
+                        return d.<Coords> as().x();
+                    }
+                }, new DoubleDatumFunction() {
+                    @Override
+                    public double apply(final Element context, final Value d, final int index) {
+                        return d.<Coords> as().y();
+                    }
+                }).attrNumber("r", new DoubleDatumFunction() {
+                    @Override
+                    public double apply(final Element context, final Value d, final int index) {
+                        return 1 + index % 3;
+                    }
+                });
+                measure("Numeric tweens", result, DURATION);
+            }
+        }));
+        result = new Label();
+        add(result);
+    }
+
+    @Override
+    public void start() {
+        Array<Coords> data = Array.create();
+        for (int i = 0; i < ELEMENTS; i++) {
+            data.push(Coords.create(0, 0));
+        }
+        circles = D3.select(this).append("svg").attr("width", 960).attr("height", 500)
+                .selectAll("circle").data(data).enter().append("circle").attr("r", 1)
+                .attr("transform", "translate(0,0)");
+        shuffle();
+    }
+
+    /**
+     * Moves the data of the circles to new random positions.
+     */
+    private void shuffle() {
+        Array<Coords> data = circles.<Coords> data();
+        for (int i = 0; i < data.length(); i++) {
+            data.get(i).x(Math.random() * 960).y(Math.random() * 500);
+        }
+    }
+
+    /**
+     * Counts the animation frames during the given duration, and reports their number and the longest one.
+     */
+    private static native void measure(String name, Label result, int duration)/*-{
+		var frames = 0, longest = 0, start = $wnd.performance.now(), last = start;
+		function frame(now) {
+			frames++;
+			longest = Math.max(longest, now - last);
+			last = now;
+			if (now - start < duration) {
+				$wnd.requestAnimationFrame(frame);
+			} else {
+				result.@com.google.gwt.user.client.ui.Label::setText(Ljava/lang/String;)(name + ': ' + frames + ' frames in '
+						+ Math.round(now - start) + ' ms (' + Math.round(frames * 1000 / (now - start))
+						+ ' fps), longest frame: ' + Math.round(longest) + ' ms');
+			}
+		}
+		$wnd.requestAnimationFrame($entry(frame));
+    }-*/;
+
+    @Override
+    public void stop() {
+    }
+
+    public static Factory factory() {
+        return new Factory() {
+            @Override
+            public DemoCase newInstance() {
+                return new TransitionTweenBenchmark();
+            }
+        };
+    }
+}
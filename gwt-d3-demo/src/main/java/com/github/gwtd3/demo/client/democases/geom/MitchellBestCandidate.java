@@ -31,6 +31,7 @@
 import com.github.gwtd3.api.D3;
 import com.github.gwtd3.api.arrays.Array;
 import com.github.gwtd3.api.core.Selection;
+import com.github.gwtd3.api.core.TimerQueue;
 import com.github.gwtd3.api.core.Value;
 import com.github.gwtd3.api.functions.DatumFunction;
 import com.github.gwtd3.api.functions.TimerFunction;
@@ -45,7 +46,7 @@
 
 public class MitchellBestCandidate extends FlowPanel implements DemoCase {
 
-    private boolean done = false;
+    private TimerQueue.Handle handle;
 
     private static class Circle {
         double x, y, r;
@@ -185,17 +186,21 @@ public boolean execute() {
                         m *= .998;
                     }
                 }
-                return n == 0 || done;
+                return n <= 0;
             }
         };
-        done = false;
-        D3.timer(timerFunction);
+        // background work: deferred to the next frame when the budget is
+        // exhausted
+        handle = D3.timerQueue().schedule(timerFunction, TimerQueue.LOW);
 
     }
 
     @Override
     public void stop() {
-        done = true;
+        if (handle != null) {
+            handle.cancel();
+            handle = null;
+        }
     }
 
     public static Factory factory() {
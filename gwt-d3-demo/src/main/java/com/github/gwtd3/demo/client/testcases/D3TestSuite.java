@@ -41,6 +41,7 @@
 import com.github.gwtd3.demo.client.testcases.behaviors.TestZoom;
 import com.github.gwtd3.demo.client.testcases.core.TestFormat;
 import com.github.gwtd3.demo.client.testcases.core.TestMath;
+import com.github.gwtd3.demo.client.testcases.core.TestTimerQueue;
 import com.github.gwtd3.demo.client.testcases.csv.TestCsv;
 import com.github.gwtd3.demo.client.testcases.d3.TestColors;
 import com.github.gwtd3.demo.client.testcases.d3.TestD3;
@@ -53,8 +54,11 @@
 import com.github.gwtd3.demo.client.testcases.scales.TestQuantizeScale;
 import com.github.gwtd3.demo.client.testcases.scales.TestThresholdScale;
 import com.github.gwtd3.demo.client.testcases.scales.TestTimeScale;
+import com.github.gwtd3.demo.client.testcases.selection.TestHybridLayer;
+import com.github.gwtd3.demo.client.testcases.selection.TestInstrumentation;
 import com.github.gwtd3.demo.client.testcases.selection.TestSelectionAppend;
 import com.github.gwtd3.demo.client.testcases.selection.TestSelectionAttr;
+import com.github.gwtd3.demo.client.testcases.selection.TestSelectionCache;
 import com.github.gwtd3.demo.client.testcases.selection.TestSelectionClassed;
 import com.github.gwtd3.demo.client.testcases.selection.TestSelectionContents;
 import com.github.gwtd3.demo.client.testcases.selection.TestSelectionControls;
@@ -65,6 +69,7 @@
 import com.github.gwtd3.demo.client.testcases.selection.TestSelectionStyle;
 import com.github.gwtd3.demo.client.testcases.selection.TestSelectionText;
 import com.github.gwtd3.demo.client.testcases.selection.TestSubselections;
+import com.github.gwtd3.demo.client.testcases.selection.TestVirtualSelection;
 import com.github.gwtd3.demo.client.testcases.svg.TestArea;
 import com.github.gwtd3.demo.client.testcases.svg.TestAxis;
 import com.github.gwtd3.demo.client.testcases.svg.TestChord;
@@ -75,6 +80,7 @@
 import com.github.gwtd3.demo.client.testcases.transition.TestEasing;
 import com.github.gwtd3.demo.client.testcases.transition.TestInterpolators;
 import com.github.gwtd3.demo.client.testcases.transition.TestTransition;
+import com.github.gwtd3.demo.client.testcases.transition.TestTransitionScheduler;
 import com.github.gwtd3.demo.client.testcases.tsv.TestTsv;
 
 /**
@@ -109,10 +115,17 @@ public static D3TestSuite get() {
                 new TestSelectionHtml(),
                 new TestSelectionControls(),
                 new TestSelectionStyle(),
+                new TestVirtualSelection(),
+                new TestHybridLayer(),
+                new TestInstrumentation(),
+                new TestSelectionCache(),
                 // Transitions
                 new TestTransition(),
+                new TestTransitionScheduler(),
                 new TestInterpolators(),
                 new TestEasing(),
+                // Timers
+                new TestTimerQueue(),
                 // Math
                 new TestMath(),
                 // Format
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.demo.client.testcases.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.gwtd3.api.D3;
+import com.github.gwtd3.api.core.TimerQueue;
+import com.github.gwtd3.api.functions.TimerFunction;
+import com.github.gwtd3.demo.client.test.AbstractTestCase;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.user.client.ui.ComplexPanel;
+
+/**
+ * Test {@link TimerQueue}.
+ */
+public class TestTimerQueue extends AbstractTestCase {
+
+	@Override
+	public void doTest(final ComplexPanel sandbox) {
+		assertSame(TimerQueue.get(), D3.timerQueue());
+
+		TimerQueue queue = new TimerQueue().budget(1000);
+		final List<String> calls = new ArrayList<String>();
+
+		// priorities
+		TimerQueue.Handle low = queue.schedule(recorder(calls, "low", 0), TimerQueue.LOW);
+		TimerQueue.Handle high = queue.schedule(recorder(calls, "high", 0), TimerQueue.HIGH);
+		TimerQueue.Handle normal = queue.schedule(recorder(calls, "normal", 0));
+		TimerQueue.Handle delayed = queue.schedule(recorder(calls, "delayed", 0), TimerQueue.HIGH, 1000000);
+		assertEquals(4, queue.size());
+		queue.flush();
+		assertEquals("[high, normal, low]", calls.toString());
+
+		// metrics
+		assertEquals(1, high.executions());
+		assertEquals(0, delayed.executions());
+		assertTrue(high.totalTime() >= 0);
+		assertEquals(high.lastTime(), high.maxTime(), 0.0);
+		assertEquals(high.totalTime(), high.averageTime(), 0.0);
+		assertEquals(0.0, delayed.averageTime(), 0.0);
+		assertTrue(queue.frames() >= 1);
+
+		// cancel
+		calls.clear();
+		normal.cancel();
+		assertFalse(normal.isActive());
+		delayed.cancel();
+		queue.flush();
+		assertEquals("[high, low]", calls.toString());
+		assertEquals(1, normal.executions());
+		assertEquals(2, queue.size());
+
+		// change priority
+		calls.clear();
+		low.priority(TimerQueue.HIGH + 1);
+		queue.flush();
+		assertEquals("[low, high]", calls.toString());
+
+		// budget: the second function is deferred to the next frame
+		calls.clear();
+		queue.budget(0).resetCounters();
+		low.cancel();
+		TimerQueue.Handle slow = queue.schedule(recorder(calls, "slow", 2), TimerQueue.HIGH + 1);
+		queue.flush();
+		assertEquals("[slow]", calls.toString());
+		assertEquals(1, queue.deferred());
+		assertTrue(slow.lastTime() >= 1);
+		assertTrue(queue.lastFrameTime() >= slow.lastTime());
+		// the deferred function goes first among the same priority
+		slow.priority(TimerQueue.HIGH);
+		queue.flush();
+		assertEquals("high", calls.get(1));
+
+		// a function returning true is removed
+		queue.budget(1000);
+		calls.clear();
+		TimerQueue.Handle once = queue.schedule(new TimerFunction() {
+			@Override
+			public boolean execute() {
+				calls.add("once");
+				return true;
+			}
+		});
+		queue.flush();
+		queue.flush();
+		assertFalse(once.isActive());
+		assertEquals(1, once.executions());
+
+		high.cancel();
+		slow.cancel();
+		queue.flush();
+		assertEquals(0, queue.size());
+	}
+
+	private TimerFunction recorder(final List<String> calls, final String name, final double busyMillis) {
+		return new TimerFunction() {
+			@Override
+			public boolean execute() {
+				calls.add(name);
+				double end = Duration.currentTimeMillis() + busyMillis;
+				while (Duration.currentTimeMillis() < end) {
+					// busy
+				}
+				return false;
+			}
+		};
+	}
+}
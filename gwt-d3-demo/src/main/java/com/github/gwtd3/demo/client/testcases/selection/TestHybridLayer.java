@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.demo.client.testcases.selection;
+
+import com.github.gwtd3.api.Coords;
+import com.github.gwtd3.api.D3;
+import com.github.gwtd3.api.arrays.Array;
+import com.github.gwtd3.api.core.HybridLayer;
+import com.github.gwtd3.api.core.Selection;
+import com.github.gwtd3.api.functions.SelectionFunction;
+import com.google.gwt.canvas.dom.client.Context2d;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.dom.client.CanvasElement;
+import com.google.gwt.dom.client.Document;
+import com.google.gwt.user.client.ui.ComplexPanel;
+
+/**
+ * Test {@link HybridLayer}.
+ */
+public class TestHybridLayer extends AbstractSelectionTest {
+
+	@Override
+	public void doTest(final ComplexPanel sandbox) {
+		clearSandbox();
+		Selection g = D3.select(sandbox).append("svg").append("g");
+		CanvasElement canvas = Document.get().createCanvasElement();
+		canvas.setWidth(100);
+		canvas.setHeight(100);
+		sandbox.getElement().appendChild(canvas);
+
+		final int[] painted = new int[1];
+		HybridLayer layer = new HybridLayer(g, canvas, "circle")
+				.positions(Coords.X_ACCESSOR, Coords.Y_ACCESSOR).threshold(10)
+				.onEnter(new SelectionFunction() {
+					@Override
+					public void apply(final Selection selection) {
+						selection.attr("r", 1);
+					}
+				}).onPaint(new HybridLayer.Painter() {
+					@Override
+					public void paint(final Context2d context, final JavaScriptObject data) {
+						painted[0]++;
+					}
+				});
+
+		// below the threshold: svg
+		layer.data(givenADiagonal(10));
+		assertFalse(layer.isCanvas());
+		assertEquals(10, layer.selection().size());
+		assertEquals(0, painted[0]);
+		assertEquals("none", canvas.getStyle().getDisplay());
+
+		// above the threshold: canvas
+		layer.data(givenADiagonal(100));
+		assertTrue(layer.isCanvas());
+		assertEquals(0, layer.selection().size());
+		assertEquals(1, painted[0]);
+		assertEquals("", canvas.getStyle().getDisplay());
+
+		// hit-testing through the quadtree
+		assertEquals(42, layer.find(42, 42.5));
+		assertEquals(-1, layer.find(10, 50));
+		assertEquals(-1, layer.radius(0.25).find(42, 43));
+
+		// back to svg
+		layer.data(givenADiagonal(3));
+		assertFalse(layer.isCanvas());
+		assertEquals(3, layer.selection().size());
+		assertEquals(1, painted[0]);
+	}
+
+	private Array<Coords> givenADiagonal(final int n) {
+		Array<Coords> data = Array.create();
+		for (int i = 0; i < n; i++) {
+			data.push(Coords.create(i, i));
+		}
+		return data;
+	}
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.demo.client.testcases.selection;
+
+import com.github.gwtd3.api.D3;
+import com.github.gwtd3.api.arrays.Array;
+import com.github.gwtd3.api.core.Instrumentation;
+import com.github.gwtd3.api.core.Instrumentation.Snapshot;
+import com.github.gwtd3.api.core.Selection;
+import com.github.gwtd3.api.core.Value;
+import com.github.gwtd3.api.functions.DatumFunction;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.user.client.ui.ComplexPanel;
+
+/**
+ * Test {@link Instrumentation}, whether it is enabled or not by the deferred-binding property. The recording path runs
+ * in the D3DemoInstrumented module, which enables the instrumentation.
+ */
+public class TestInstrumentation extends AbstractSelectionTest {
+
+	@Override
+	public void doTest(final ComplexPanel sandbox) {
+		Instrumentation instrumentation = Instrumentation.get();
+		assertSame(instrumentation, D3.instrumentation);
+		assertEquals("d3demoinstrumented".equals(GWT.getModuleName()), instrumentation.isEnabled());
+		clearSandbox();
+		instrumentation.reset();
+
+		Selection svg = D3.select(sandbox).append("svg");
+		svg.selectAll("rect").data(Array.fromInts(1, 2, 3)).enter().append("rect")
+				.attr("width", new DatumFunction<Integer>() {
+					@Override
+					public Integer apply(final Element context, final Value d, final int index) {
+						return d.asInt();
+					}
+				}).attr("height", 10);
+		// getters are not recorded
+		svg.select("rect").attr("width");
+
+		Snapshot snapshot = instrumentation.snapshot();
+		if (!instrumentation.isEnabled()) {
+			assertEquals(0, snapshot.operations().length());
+			assertEquals(0, snapshot.count("attr"));
+			return;
+		}
+		assertEquals(2, snapshot.count("select"));
+		assertEquals(1, snapshot.count("selectAll"));
+		assertEquals(1, snapshot.count("data"));
+		assertEquals(2, snapshot.count("append"));
+		assertEquals(2, snapshot.count("attr"));
+		assertEquals(3, snapshot.count("callback"));
+		assertTrue(snapshot.time("attr") >= 0);
+
+		// the snapshot is a copy
+		instrumentation.reset();
+		assertEquals(2, snapshot.count("attr"));
+		assertEquals(0, instrumentation.snapshot().count("attr"));
+	}
+}
@@ -28,9 +28,16 @@
  */
 package com.github.gwtd3.demo.client.testcases.selection;
 
+import com.github.gwtd3.api.D3;
+import com.github.gwtd3.api.arrays.Array;
+import com.github.gwtd3.api.core.NodePool;
+import com.github.gwtd3.api.core.ProgressiveRendering;
 import com.github.gwtd3.api.core.Selection;
+import com.github.gwtd3.api.core.UpdateSelection;
 import com.github.gwtd3.api.core.Value;
+import com.github.gwtd3.api.functions.BooleanDatumFunction;
 import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.SelectionFunction;
 import com.google.gwt.dom.client.Document;
 import com.google.gwt.dom.client.Element;
 import com.google.gwt.dom.client.Node;
@@ -46,8 +53,143 @@ public class TestSelectionAppend extends AbstractSelectionTest {
     public void doTest(final ComplexPanel sandbox) {
         testAppendTagName();
         testAppendFunctionReturningNode();
+        testAppendWithNodePool();
+        testBulkAppend();
+        testProgressiveAppend();
     }
 
+    private void testProgressiveAppend() {
+        Selection root = givenASimpleSelection(new Label());
+        final int[] progress = new int[2];
+        ProgressiveRendering rendering = root.selectAll("span").data(new String[] { "a", "b", "c" }).enter()
+                .progressiveAppend("span").budget(1000).first(new BooleanDatumFunction() {
+                    @Override
+                    public boolean apply(final Element context, final Value d, final int index) {
+                        return "c".equals(d.asString());
+                    }
+                }).listener(new ProgressiveRendering.Listener() {
+                    @Override
+                    public void onProgress(final int rendered, final int total) {
+                        progress[0] = rendered;
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        progress[1]++;
+                    }
+                }).start();
+        assertEquals(3, rendering.total());
+        assertEquals(0, rendering.rendered());
+        assertEquals(0, root.selectAll("span").size());
+
+        // WHEN the timer runs
+        D3.timerFlush();
+        // THEN all the elements are rendered, and ordered as the data once complete
+        assertTrue(rendering.isComplete());
+        assertEquals(3, progress[0]);
+        assertEquals(1, progress[1]);
+        assertEquals("a", root.select("span").datum().asString());
+        assertEquals(3, root.selectAll("span").size());
+        assertEquals("c", root.selectAll("span").<String> data().get(2));
+
+        // a new rendering on the same parent cancels the previous one
+        ProgressiveRendering first = root.selectAll("span").data(new String[] { "a", "b", "c", "d" }).enter()
+                .progressiveAppend("span").start();
+        ProgressiveRendering second = root.selectAll("span").data(new String[] { "a", "b", "c", "d", "e" }).enter()
+                .progressiveAppend("span").start();
+        assertTrue(first.isCancelled());
+        assertFalse(second.isCancelled());
+        D3.timerFlush();
+        assertEquals(0, first.rendered());
+        assertEquals(5, root.selectAll("span").size());
+
+        // as does a new join
+        ProgressiveRendering third = root.selectAll("span").data(new String[] { "a", "b", "c", "d", "e", "f" })
+                .enter().progressiveAppend("span").start();
+        root.selectAll("span").data(new String[] { "x" });
+        assertTrue(third.isCancelled());
+        D3.timerFlush();
+        assertEquals(0, third.rendered());
+        assertEquals(5, root.selectAll("span").size());
+
+        // a cancelled rendering is no longer marked on the parent
+        ProgressiveRendering fourth = root.selectAll("span").data(new String[] { "a", "b", "c", "d", "e", "f" })
+                .enter().progressiveAppend("span").start();
+        assertTrue(hasProgressiveRendering(root.node()));
+        fourth.cancel();
+        assertFalse(hasProgressiveRendering(root.node()));
+    }
+
+    private static native boolean hasProgressiveRendering(Element parent)/*-{
+        return !!parent.__gwtd3_progressive__;
+    }-*/;
+
+    private void testBulkAppend() {
+        Selection root = givenASimpleSelection(new Label());
+        root.append("span").datum("a");
+        UpdateSelection update = root.selectAll("span").data(new String[] { "a", "b", "c" });
+        final boolean[] detached = new boolean[1];
+        Selection entered = update.enter().bulkAppend("span", new SelectionFunction() {
+            @Override
+            public void apply(final Selection selection) {
+                detached[0] = selection.node().getParentElement() == null;
+                selection.attr(ATTRIBUTE, "x");
+            }
+        });
+        // THEN the elements were initialized before being attached
+        assertTrue(detached[0]);
+        assertEquals(2, entered.size());
+        assertEquals(root.node(), entered.node().getParentElement());
+        // in the order of the data, merged into the update selection
+        assertEquals(3, update.size());
+        Array<String> data = root.selectAll("span").data();
+        assertEquals("a", data.get(0));
+        assertEquals("b", data.get(1));
+        assertEquals("c", data.get(2));
+        assertEquals("x", getElement(0).getFirstChildElement().getNextSiblingElement().getAttribute(ATTRIBUTE));
+    }
+
+    private void testAppendWithNodePool() {
+        Selection root = givenASimpleSelection(new Label());
+        NodePool pool = NodePool.create();
+        root.selectAll("span").data(new String[] { "a", "b", "c" }).enter()
+                .append("span", pool).text("x");
+        assertEquals(3, pool.created());
+        assertEquals(0, pool.reused());
+
+        // WHEN 2 elements exit
+        UpdateSelection update = root.selectAll("span").data(new String[] { "a" });
+        Selection exit = update.exit();
+        exit.dirtyChecked().attr(ATTRIBUTE, "1");
+        assertTrue(hasLibraryState(exit.node()));
+        exit.remove(pool);
+        // the pooled elements forget their data and the state of the library
+        assertFalse(hasLibraryState(exit.node()));
+        assertEquals(1, root.selectAll("span").size());
+        assertEquals(2, pool.size("span"));
+
+        // THEN entering elements reuse them
+        Selection entered = root.selectAll("span").data(new String[] { "a", "d", "e", "f" }).enter()
+                .append("span", pool);
+        assertEquals(3, entered.size());
+        assertEquals(4, pool.created());
+        assertEquals(2, pool.reused());
+        assertEquals(0, pool.size("span"));
+        assertEquals(4, root.selectAll("span").size());
+        // recycled elements keep their content, and get the new data
+        assertEquals("x", entered.text());
+        assertEquals("d", entered.datum().asString());
+    }
+
+    private static native boolean hasLibraryState(Element element)/*-{
+        for ( var key in element) {
+            if (element.hasOwnProperty(key) && (key == '__data__' || key.lastIndexOf('__gwtd3_', 0) === 0)) {
+                return true;
+            }
+        }
+        return false;
+    }-*/;
+
     private void testAppendTagName() {
         Selection selection = givenASimpleSelection(new Label());
         // WHEN appending
@@ -28,10 +28,19 @@
  */
 package com.github.gwtd3.demo.client.testcases.selection;
 
+import com.github.gwtd3.api.Coords;
 import com.github.gwtd3.api.D3;
+import com.github.gwtd3.api.core.Attributes;
 import com.github.gwtd3.api.core.Value;
+import com.github.gwtd3.api.core.WriteCounters;
 import com.github.gwtd3.api.core.Selection;
+import com.github.gwtd3.api.functions.AttributesFunction;
 import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.DoubleDatumFunction;
+import com.github.gwtd3.api.functions.IntDatumFunction;
+import com.github.gwtd3.api.functions.StringDatumFunction;
+import com.github.gwtd3.api.functions.FlyweightDatumFunction;
+import com.github.gwtd3.api.functions.JavascriptAccessor;
 import com.github.gwtd3.api.svg.Arc;
 import com.github.gwtd3.api.svg.PathDataGenerator;
 import com.github.gwtd3.demo.client.test.AbstractTestCase;
@@ -55,6 +64,12 @@ public void doTest(final ComplexPanel sandbox) {
 		testSetterConstantString();
 		testSetterPathDataGenerator();
 		testSetterFunction();
+		testSetterFlyweightFunction();
+		testSetterPrimitiveFunctions();
+		testSetterJavascriptAccessor();
+		testSetterAttributes();
+		testDirtyChecked();
+		testDeferred();
 
 	}
 
@@ -84,6 +99,179 @@ public String apply(final Element context, final Value datum, final int index) {
 
 	}
 
+	protected void testSetterFlyweightFunction() {
+		Selection selection = givenAMultipleSelection(new Label(), new Label(), new Label());
+		selection.data(new String[] { "a", "b", "c" });
+		final Value[] values = new Value[3];
+		selection.attr(TestSelectionAttr.ATTRIBUTE, new FlyweightDatumFunction<String>() {
+			@Override
+			public String apply(final Element context, final Value datum, final int index) {
+				values[index] = datum;
+				return datum.asString();
+			}
+		});
+		assertEquals("a", getElementAttribute(0, TestSelectionAttr.ATTRIBUTE));
+		assertEquals("b", getElementAttribute(1, TestSelectionAttr.ATTRIBUTE));
+		assertEquals("c", getElementAttribute(2, TestSelectionAttr.ATTRIBUTE));
+		// the same value is passed for each element
+		assertSame(values[0], values[1]);
+		assertSame(values[1], values[2]);
+
+	}
+
+	protected void testSetterPrimitiveFunctions() {
+		Selection selection = givenAMultipleSelection(new Label(), new Label(), new Label());
+		selection.attrDouble(TestSelectionAttr.ATTRIBUTE, new DoubleDatumFunction() {
+			@Override
+			public double apply(final Element context, final Value datum, final int index) {
+				return index + 0.5;
+			}
+		});
+		assertEquals("0.5", getElementAttribute(0, TestSelectionAttr.ATTRIBUTE));
+		assertEquals("2.5", getElementAttribute(2, TestSelectionAttr.ATTRIBUTE));
+
+		selection.attrInt(TestSelectionAttr.ATTRIBUTE, new IntDatumFunction() {
+			@Override
+			public int apply(final Element context, final Value datum, final int index) {
+				return index * 2;
+			}
+		});
+		assertEquals("0", getElementAttribute(0, TestSelectionAttr.ATTRIBUTE));
+		assertEquals("4", getElementAttribute(2, TestSelectionAttr.ATTRIBUTE));
+
+		selection.attrString(TestSelectionAttr.ATTRIBUTE, new StringDatumFunction() {
+			@Override
+			public String apply(final Element context, final Value datum, final int index) {
+				return "s" + index;
+			}
+		});
+		assertEquals("s0", getElementAttribute(0, TestSelectionAttr.ATTRIBUTE));
+		assertEquals("s2", getElementAttribute(2, TestSelectionAttr.ATTRIBUTE));
+	}
+
+	protected void testSetterJavascriptAccessor() {
+		Selection selection = givenAMultipleSelection(new Label(), new Label(), new Label());
+		selection.data(new Coords[] { Coords.create(1, 2), Coords.create(3, 4), Coords.create(5, 6) });
+		selection.attr(TestSelectionAttr.ATTRIBUTE, JavascriptAccessor.property("x"));
+		assertEquals("1", getElementAttribute(0, TestSelectionAttr.ATTRIBUTE));
+		assertEquals("5", getElementAttribute(2, TestSelectionAttr.ATTRIBUTE));
+
+		selection.attr(TestSelectionAttr.ATTRIBUTE, JavascriptAccessor.linear("y", 10, 1));
+		assertEquals("21", getElementAttribute(0, TestSelectionAttr.ATTRIBUTE));
+		assertEquals("61", getElementAttribute(2, TestSelectionAttr.ATTRIBUTE));
+
+		selection.attr(TestSelectionAttr.ATTRIBUTE, JavascriptAccessor.index(2, 0));
+		assertEquals("4", getElementAttribute(2, TestSelectionAttr.ATTRIBUTE));
+
+		// still callable from java
+		Value datum = Value.create(Coords.create(7, 8));
+		assertEquals(8.0, Coords.Y_ACCESSOR.apply(null, datum, 0).doubleValue(), 0.0);
+	}
+
+	protected void testSetterAttributes() {
+		Selection selection = givenAMultipleSelection(new Label(), new Label(), new Label());
+		selection.data(new Coords[] { Coords.create(1, 2), Coords.create(3, 4), Coords.create(5, 6) });
+		final Attributes[] records = new Attributes[3];
+		selection.attrs(new AttributesFunction() {
+			@Override
+			public void apply(final Element context, final Value d, final int index, final Attributes attributes) {
+				assertEquals(0, attributes.length());
+				records[index] = attributes;
+				Coords c = d.as();
+				attributes.set("x", c.x()).set("y", c.y()).set(TestSelectionAttr.ATTRIBUTE, "a" + index);
+			}
+		});
+		assertEquals("1", getElementAttribute(0, "x"));
+		assertEquals("6", getElementAttribute(2, "y"));
+		assertEquals("a1", getElementAttribute(1, TestSelectionAttr.ATTRIBUTE));
+		assertSame(records[0], records[2]);
+
+		// null removes the attribute
+		selection.attrs(new AttributesFunction() {
+			@Override
+			public void apply(final Element context, final Value d, final int index, final Attributes attributes) {
+				attributes.set(TestSelectionAttr.ATTRIBUTE, null);
+			}
+		});
+		assertFalse(getElement(1).hasAttribute(TestSelectionAttr.ATTRIBUTE));
+		assertEquals("3", getElementAttribute(1, "x"));
+	}
+
+	protected void testDirtyChecked() {
+		Selection selection = givenAMultipleSelection(new Label(), new Label(), new Label());
+		assertNull(selection.writeCounters());
+		selection.dirtyChecked();
+		WriteCounters counters = selection.writeCounters();
+		assertNotNull(counters);
+
+		selection.attr(TestSelectionAttr.ATTRIBUTE, "1");
+		assertEquals(3, counters.written());
+		assertEquals(0, counters.skipped());
+		assertEquals("1", getElementAttribute(2, TestSelectionAttr.ATTRIBUTE));
+
+		// only the second element changes
+		selection.attrDouble(TestSelectionAttr.ATTRIBUTE, new DoubleDatumFunction() {
+			@Override
+			public double apply(final Element context, final Value datum, final int index) {
+				return index == 1 ? 2 : 1;
+			}
+		});
+		assertEquals(4, counters.written());
+		assertEquals(2, counters.skipped());
+		assertEquals("2", getElementAttribute(1, TestSelectionAttr.ATTRIBUTE));
+
+		selection.style("color", "red").style("color", "red");
+		assertEquals(7, counters.written());
+		assertEquals(5, counters.skipped());
+
+		counters.reset();
+		selection.attr(TestSelectionAttr.ATTRIBUTE, (String) null);
+		assertEquals(3, counters.written());
+		assertFalse(getElement(0).hasAttribute(TestSelectionAttr.ATTRIBUTE));
+
+		// getters are not affected
+		assertNull(selection.attr(TestSelectionAttr.ATTRIBUTE));
+		assertEquals("red", getElementStyle(2, "color"));
+	}
+
+	protected void testDeferred() {
+		Selection selection = givenAMultipleSelection(new Label(), new Label());
+		selection.attr(TestSelectionAttr.ATTRIBUTE, "0");
+		selection.deferred();
+
+		selection.attr(TestSelectionAttr.ATTRIBUTE, "1").style("color", "red").text("foo");
+		selection.attrString(TestSelectionAttr.ATTRIBUTE, new StringDatumFunction() {
+			@Override
+			public String apply(final Element context, final Value datum, final int index) {
+				return "2" + index;
+			}
+		});
+		// nothing written yet
+		assertEquals("0", getElementAttribute(1, TestSelectionAttr.ATTRIBUTE));
+		assertEquals("0", selection.attr(TestSelectionAttr.ATTRIBUTE));
+		assertEquals("", getElementInnerText(0));
+
+		Selection.flushDeferred();
+		// last write wins
+		assertEquals("20", getElementAttribute(0, TestSelectionAttr.ATTRIBUTE));
+		assertEquals("21", getElementAttribute(1, TestSelectionAttr.ATTRIBUTE));
+		assertEquals("red", getElementStyle(1, "color"));
+		assertEquals("foo", getElementInnerText(1));
+
+		// attrs is deferred too, and overrides a previous attr
+		selection.attr("x", "1");
+		selection.attrs(new AttributesFunction() {
+			@Override
+			public void apply(final Element context, final Value d, final int index, final Attributes attributes) {
+				attributes.set("x", 2);
+			}
+		});
+		assertFalse(getElement(0).hasAttribute("x"));
+		Selection.flushDeferred();
+		assertEquals("2", getElementAttribute(0, "x"));
+		assertEquals("2", getElementAttribute(1, "x"));
+	}
+
 	protected void testSetterConstantString() {
 		// works with single selection
 		Selection selection = givenASimpleSelection(new Label());
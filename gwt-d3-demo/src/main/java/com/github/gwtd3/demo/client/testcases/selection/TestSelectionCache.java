@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.demo.client.testcases.selection;
+
+import com.github.gwtd3.api.D3;
+import com.github.gwtd3.api.arrays.Array;
+import com.github.gwtd3.api.core.Selection;
+import com.github.gwtd3.api.core.SelectionCache;
+import com.google.gwt.user.client.ui.ComplexPanel;
+
+/**
+ * Test {@link SelectionCache}.
+ */
+public class TestSelectionCache extends AbstractSelectionTest {
+
+	@Override
+	public void doTest(final ComplexPanel sandbox) {
+		clearSandbox();
+		Selection chart = D3.select(sandbox).append("div").attr("id", "cachedChart");
+		chart.selectAll("span").data(Array.fromInts(1, 2, 3)).enter().append("span").classed("node", true);
+
+		SelectionCache cache = new SelectionCache();
+		Selection nodes = cache.selectAll("#cachedChart", ".node");
+		assertEquals(3, nodes.size());
+		assertEquals(0, cache.hits());
+		assertEquals(1, cache.misses());
+
+		// no mutation: same selection
+		assertSame(nodes, cache.selectAll("#cachedChart", ".node"));
+		nodes.attr("title", "x");
+		assertSame(nodes, cache.selectAll("#cachedChart", ".node"));
+		assertEquals(2, cache.hits());
+
+		// append invalidates
+		int mutations = SelectionCache.mutations();
+		chart.append("span").classed("node", true);
+		assertTrue(SelectionCache.mutations() > mutations);
+		Selection after = cache.selectAll("#cachedChart", ".node");
+		assertNotSame(nodes, after);
+		assertEquals(4, after.size());
+
+		// remove invalidates
+		chart.select(".node").remove();
+		assertEquals(3, cache.selectAll("#cachedChart", ".node").size());
+
+		// classed, and attr on the class or id, change the matches
+		Selection nodes3 = cache.selectAll("#cachedChart", ".node");
+		chart.select(".node").classed("node", false);
+		assertNotSame(nodes3, cache.selectAll("#cachedChart", ".node"));
+		assertEquals(2, cache.selectAll("#cachedChart", ".node").size());
+		chart.select("span").attr("class", "node");
+		assertEquals(3, cache.selectAll("#cachedChart", ".node").size());
+		chart.attr("id", "renamedChart");
+		assertEquals(0, cache.selectAll("#cachedChart", ".node").size());
+		chart.attr("id", "cachedChart");
+		assertEquals(3, cache.selectAll("#cachedChart", ".node").size());
+
+		// single selections and manual invalidation
+		Selection single = cache.select("#cachedChart");
+		assertSame(single, cache.select("#cachedChart"));
+		cache.invalidate();
+		assertNotSame(single, cache.select("#cachedChart"));
+		assertEquals(3, cache.selectAll(".node").size());
+	}
+}
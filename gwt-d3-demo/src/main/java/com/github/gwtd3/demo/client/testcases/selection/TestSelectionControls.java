@@ -29,9 +29,16 @@
 package com.github.gwtd3.demo.client.testcases.selection;
 
 import com.github.gwtd3.api.D3;
+import com.github.gwtd3.api.arrays.Array;
+import com.github.gwtd3.api.core.FlatSelection;
 import com.github.gwtd3.api.core.Selection;
 import com.github.gwtd3.api.core.Value;
+import com.github.gwtd3.api.functions.CoalescingDatumFunction;
 import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.DoubleDatumFunction;
+import com.github.gwtd3.api.functions.KeyFunction;
+import com.github.gwtd3.api.functions.StringDatumFunction;
+import com.google.gwt.dom.client.Document;
 import com.google.gwt.dom.client.Element;
 import com.google.gwt.user.client.ui.ComplexPanel;
 import com.google.gwt.user.client.ui.Label;
@@ -48,6 +55,191 @@ public void doTest(final ComplexPanel sandbox) {
 		testCount();
 		testCall();
 		testInterrupt();
+		testOnDelegated();
+		testOnDelegatedSharedParent();
+		testOnCoalescing();
+		testSortByKey();
+		testFlatten();
+	}
+
+	private void testFlatten() {
+		Selection selection = givenAMultipleSelection(new Label("a"),
+				new Label("b"), new Label("c"));
+		selection.data(new String[] { "x", "y", "z" });
+		FlatSelection flat = selection.flatten();
+		assertEquals(3, flat.length());
+		Array<Element> nodes = flat.nodes();
+		Array<String> data = flat.data();
+		for (int i = 0; i < flat.length(); i++) {
+			assertEquals(getElement(i), nodes.get(i));
+			assertEquals(i, flat.indexes().get(i));
+			assertEquals(0, flat.groups().get(i));
+		}
+		assertEquals("y", data.get(1));
+
+		// null elements are skipped
+		flat = selection.select("span").flatten();
+		assertEquals(0, flat.length());
+	}
+
+	private void testSortByKey() {
+		Selection selection = givenAMultipleSelection(new Label("a"),
+				new Label("b"), new Label("c"), new Label("d"));
+		selection.data(new double[] { 3, 1, 2, 1 });
+		selection.sortDouble(new DoubleDatumFunction() {
+			@Override
+			public double apply(final Element context, final Value d,
+					final int index) {
+				return d.asDouble();
+			}
+		});
+		// the document is re-ordered, equal keys keep their order
+		assertEquals("bdca", sandbox.getElement().getInnerText()
+				.replaceAll("\\s", ""));
+
+		selection.sortString(new StringDatumFunction() {
+			@Override
+			public String apply(final Element context, final Value d,
+					final int index) {
+				return context.getInnerText();
+			}
+		});
+		assertEquals("abcd", sandbox.getElement().getInnerText()
+				.replaceAll("\\s", ""));
+
+		// the key function gets the index in the group, null slots included
+		Selection update = givenAMultipleSelection(new Label("a"),
+				new Label("b"), new Label("c")).data(
+				new String[] { "a", "b", "c" }).data(
+				Array.fromObjects("z", "a", "b", "c"), new KeyFunction<String>() {
+					@Override
+					public String map(final Element context,
+							final Array<?> newDataArray, final Value datum,
+							final int index) {
+						return datum.asString();
+					}
+				});
+		final StringBuilder indexes = new StringBuilder();
+		update.sortDouble(new DoubleDatumFunction() {
+			@Override
+			public double apply(final Element context, final Value d,
+					final int index) {
+				indexes.append(index);
+				return -index;
+			}
+		});
+		assertEquals("123", indexes.toString());
+		assertEquals("cba", sandbox.getElement().getInnerText()
+				.replaceAll("\\s", ""));
+	}
+
+	private void testOnCoalescing() {
+		Selection selection = givenAMultipleSelection(new Label("1"),
+				new Label("2"), new Label("3"));
+		selection.data(new String[] { "a", "b", "c" });
+		final StringBuilder sb = new StringBuilder();
+		CoalescingDatumFunction listener = new CoalescingDatumFunction(
+				new DatumFunction<Void>() {
+					@Override
+					public Void apply(final Element context, final Value d,
+							final int index) {
+						// the event of the last click is available
+						assertNotNull(D3.event());
+						sb.append(d.asString()).append(index);
+						return null;
+					}
+				});
+		selection.on("click", listener);
+		click(getElement(0));
+		click(getElement(1));
+		click(getElement(2));
+		assertEquals("", sb.toString());
+		assertEquals(2, listener.dropped());
+
+		listener.flush();
+		assertEquals("c2", sb.toString());
+		assertEquals(1, listener.delivered());
+		assertNull(D3.event());
+
+		// nothing more to deliver
+		listener.flush();
+		assertEquals(1, listener.delivered());
+		selection.on("click", null);
+	}
+
+	private void testOnDelegated() {
+		Selection selection = givenAMultipleSelection(new Label("1"),
+				new Label("2"), new Label("3"));
+		selection.data(new String[] { "a", "b", "c" });
+		final StringBuilder sb = new StringBuilder();
+		selection.onDelegated("click", new DatumFunction<Void>() {
+			@Override
+			public Void apply(final Element context, final Value d,
+					final int index) {
+				sb.append(d.asString()).append(index);
+				return null;
+			}
+		});
+		click(getElement(1));
+		click(getElement(2));
+		assertEquals("b1c2", sb.toString());
+
+		// events outside the delegating elements are ignored
+		click(sandbox.getElement());
+		assertEquals("b1c2", sb.toString());
+
+		selection.onDelegated("click", null);
+		click(getElement(0));
+		assertEquals("b1c2", sb.toString());
+	}
+
+	private void testOnDelegatedSharedParent() {
+		clearSandbox();
+		Selection parent = D3.select(sandbox).append("div");
+		Selection spans = parent.selectAll("span")
+				.data(new String[] { "a", "b" }).enter().append("span");
+		Selection paragraphs = parent.selectAll("p")
+				.data(new String[] { "x", "y" }).enter().append("p");
+		final StringBuilder sb = new StringBuilder();
+		spans.onDelegated("click", new DatumFunction<Void>() {
+			@Override
+			public Void apply(final Element context, final Value d,
+					final int index) {
+				sb.append("span").append(d.asString()).append(index);
+				return null;
+			}
+		});
+		paragraphs.onDelegated("click", new DatumFunction<Void>() {
+			@Override
+			public Void apply(final Element context, final Value d,
+					final int index) {
+				sb.append("p").append(d.asString()).append(index);
+				return null;
+			}
+		});
+		Element span0 = parent.node().getFirstChildElement();
+		Element span1 = span0.getNextSiblingElement();
+		Element p0 = span1.getNextSiblingElement();
+		Element p1 = p0.getNextSiblingElement();
+		click(span1);
+		click(p0);
+		assertEquals("spanb1px0", sb.toString());
+
+		// removing the listener of one selection keeps the other one
+		paragraphs.onDelegated("click", null);
+		sb.setLength(0);
+		click(p1);
+		click(span0);
+		assertEquals("spana0", sb.toString());
+
+		spans.onDelegated("click", null);
+		click(span1);
+		assertEquals("spana0", sb.toString());
+	}
+
+	private void click(final Element element) {
+		element.dispatchEvent(Document.get().createClickEvent(0, 0, 0, 0, 0,
+				false, false, false, false));
 	}
 
 	private void testInterrupt() {
@@ -29,12 +29,15 @@
 package com.github.gwtd3.demo.client.testcases.selection;
 
 import java.util.Arrays;
+import java.util.Collections;
 
 import com.github.gwtd3.api.D3;
 import com.github.gwtd3.api.arrays.Array;
 import com.github.gwtd3.api.core.Selection;
+import com.github.gwtd3.api.core.UpdateSelection;
 import com.github.gwtd3.api.core.Value;
 import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.IndexedKeyFunction;
 import com.github.gwtd3.api.functions.KeyFunction;
 import com.google.gwt.core.client.JsArrayInteger;
 import com.google.gwt.core.client.JsArrayUtils;
@@ -49,6 +52,10 @@ public void doTest(final ComplexPanel sandbox) {
 		testSelectionDataSetterArray();
 		testSelectionDataSetterFunctionReturningJSO();
 		testSelectionDataSetterArrayWithKeyFunction();
+		testSelectionDataDelta();
+		testSelectionDataDeltaMixedWithData();
+		testSelectionDataDeltaFromDocument();
+		testSelectionDataWithIndexedKeyFunction();
 
 		testNestedSelection();
 	}
@@ -117,6 +124,181 @@ public Array<String> apply(final Element context, final Value d,
 
 	}
 
+	private void testSelectionDataDelta() {
+		clearSandbox();
+		KeyFunction<String> func = new KeyFunction<String>() {
+			@Override
+			public String map(final Element context,
+					final Array<?> newDataArray, final Value datum,
+					final int index) {
+				return datum.asString().substring(0, 1);
+			}
+		};
+		Selection table = D3.select(sandbox).append("table");
+		table.selectAll("tr").data(Arrays.asList("a0", "b0", "c0"), func)
+				.enter().append("tr");
+
+		UpdateSelection update = table.selectAll("tr").dataDelta(
+				Arrays.asList("d0"), Arrays.asList("b1"), Arrays.asList("a0"),
+				func);
+		assertEquals(1, update.size());
+		assertEquals(1, update.enter().append("tr").size());
+		assertEquals(1, update.exit().remove().size());
+
+		Selection rows = table.selectAll("tr");
+		assertEquals(3, rows.size());
+		assertDataPropertyEqualsTo("b1", rows, 0);
+		assertDataPropertyEqualsTo("c0", rows, 1);
+		assertDataPropertyEqualsTo("d0", rows, 2);
+
+		// the element appended by the previous delta is indexed
+		update = table.selectAll("tr").dataDelta(
+				Collections.<String> emptyList(), Arrays.asList("d1"),
+				Collections.<String> emptyList(), func);
+		assertEquals(1, update.size());
+		assertTrue(update.enter().empty());
+		assertDataPropertyEqualsTo("d1", table.selectAll("tr"), 2);
+	}
+
+	private void testSelectionDataDeltaMixedWithData() {
+		clearSandbox();
+		KeyFunction<String> func = new KeyFunction<String>() {
+			@Override
+			public String map(final Element context,
+					final Array<?> newDataArray, final Value datum,
+					final int index) {
+				return datum.asString().substring(0, 1);
+			}
+		};
+		Selection table = D3.select(sandbox).append("table");
+		table.selectAll("tr").data(Arrays.asList("a0", "b0"), func).enter()
+				.append("tr");
+		table.selectAll("tr")
+				.dataDelta(Arrays.asList("c0"), null, null, func).enter()
+				.append("tr");
+		// a regular join adds an element unknown to the index of the delta
+		table.selectAll("tr")
+				.data(Arrays.asList("a0", "b0", "c0", "d0"), func).enter()
+				.append("tr");
+		assertEquals(4, table.selectAll("tr").size());
+
+		UpdateSelection update = table.selectAll("tr").dataDelta(null,
+				Arrays.asList("d1"), null, func);
+		assertEquals(1, update.size());
+		assertTrue(update.enter().empty());
+		assertEquals(4, table.selectAll("tr").size());
+		assertDataPropertyEqualsTo("d1", table.selectAll("tr"), 3);
+
+		// two child selections of the same parent have their own index
+		Selection g = D3.select(sandbox).append("svg").append("g");
+		g.selectAll("circle")
+				.dataDelta(Arrays.asList("a0", "b0"), null, null, func)
+				.enter().append("circle");
+		update = g.selectAll("text").dataDelta(Arrays.asList("a0", "b0"),
+				null, null, func);
+		assertEquals(0, update.size());
+		assertEquals(2, update.enter().append("text").size());
+
+		update = g.selectAll("circle").dataDelta(null, Arrays.asList("a1"),
+				null, func);
+		assertEquals(1, update.size());
+		assertTrue(update.enter().empty());
+		assertDataPropertyEqualsTo("a1", g.selectAll("circle"), 0);
+		assertDataPropertyEqualsTo("a0", g.selectAll("text"), 0);
+		assertEquals(2, g.selectAll("circle").size());
+		assertEquals(2, g.selectAll("text").size());
+	}
+
+	private void testSelectionDataDeltaFromDocument() {
+		clearSandbox();
+		KeyFunction<String> func = new KeyFunction<String>() {
+			@Override
+			public String map(final Element context,
+					final Array<?> newDataArray, final Value datum,
+					final int index) {
+				return datum.asString().substring(0, 1);
+			}
+		};
+		Selection table = D3.select(sandbox).append("table");
+		table.selectAll("tr").data(Arrays.asList("a0", "b0", "c0"), func)
+				.enter().append("tr").classed("gwtd3delta", true);
+
+		// a document-wide selection is indexed by its selector
+		UpdateSelection update = D3.selectAll("tr.gwtd3delta").dataDelta(
+				null, Arrays.asList("b1"), Arrays.asList("a0"), func);
+		assertEquals(1, update.size());
+		assertTrue(update.enter().empty());
+		assertEquals(1, update.exit().remove().size());
+		update = D3.selectAll("tr.gwtd3delta").dataDelta(null,
+				Arrays.asList("c1"), Arrays.asList("a0"), func);
+		assertEquals(1, update.size());
+		assertTrue(update.exit().empty());
+
+		Selection rows = table.selectAll("tr");
+		assertEquals(2, rows.size());
+		assertDataPropertyEqualsTo("b1", rows, 0);
+		assertDataPropertyEqualsTo("c1", rows, 1);
+
+		// the selections of explicit elements have no parent to keep the index
+		try {
+			D3.selectAll(rows.node()).dataDelta(null, Arrays.asList("b2"),
+					null, func);
+			fail("dataDelta should reject a selection without parent node");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+
+	private void testSelectionDataWithIndexedKeyFunction() {
+		clearSandbox();
+		final int[] calls = new int[1];
+		KeyFunction<String> func = new IndexedKeyFunction<String>() {
+			@Override
+			public String map(final Element context,
+					final Array<?> newDataArray, final Value datum,
+					final int index) {
+				calls[0]++;
+				return datum.asString();
+			}
+		};
+		Selection table = D3.select(sandbox).append("table");
+		table.selectAll("tr").data(Array.fromObjects("a", "b", "c"), func)
+				.enter().append("tr");
+		// 3 data
+		assertEquals(3, calls[0]);
+
+		calls[0] = 0;
+		UpdateSelection update = table.selectAll("tr").data(
+				Array.fromObjects("b", "c", "d"), func);
+		// the elements are known from the data of the previous join, only
+		// the new datum is computed
+		assertEquals(1, calls[0]);
+		assertEquals(1, update.exit().remove().size());
+		update.enter().append("tr");
+
+		calls[0] = 0;
+		update = table.selectAll("tr").data(
+				Array.fromObjects("b", "c", "d"), func);
+		// the keys of the elements are cached
+		assertEquals(0, calls[0]);
+		assertTrue(update.enter().empty());
+		assertTrue(update.exit().empty());
+		assertDataPropertyEqualsTo("d", table.selectAll("tr"), 2);
+
+		// the keys of the data are remembered per parent: a join under
+		// another parent with the same function does not forget them
+		Selection other = D3.select(sandbox).append("table");
+		calls[0] = 0;
+		other.selectAll("tr").data(Array.fromObjects("x", "y"), func).enter()
+				.append("tr");
+		assertEquals(2, calls[0]);
+		calls[0] = 0;
+		update = table.selectAll("tr").data(
+				Array.fromObjects("b", "c", "d", "e"), func);
+		assertEquals(1, calls[0]);
+		assertEquals(1, update.enter().size());
+	}
+
 	protected Selection givenTrElementsInATable(final int numberOfTRToCreate) {
 		clearSandbox();
 		Selection table = D3.select(sandbox).append("table");
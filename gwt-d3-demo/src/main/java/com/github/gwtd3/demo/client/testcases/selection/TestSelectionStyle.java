@@ -31,6 +31,7 @@
 import com.github.gwtd3.api.core.Value;
 import com.github.gwtd3.api.core.Selection;
 import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.JavascriptAccessor;
 import com.google.gwt.core.client.debug.JsoInspector;
 import com.google.gwt.dom.client.Element;
 import com.google.gwt.user.client.ui.ComplexPanel;
@@ -52,6 +53,7 @@ public void doTest(final ComplexPanel sandbox) {
 		testSetterConstantDouble();
 		testSetterFunction();
 		testSetterFunctionImportant();
+		testSetterJavascriptAccessorImportant();
 		testGetter();
 
 	}
@@ -108,6 +110,19 @@ public Double apply(final Element context, final Value datum, final int index) {
 
 	}
 
+	protected void testSetterJavascriptAccessorImportant() {
+		// the plain javascript function is handed to d3 with the priority
+		Selection selection = givenAMultipleSelection(new Label(), new Label(), new Label());
+		selection.style(TestSelectionStyle.STYLE_HTML, JavascriptAccessor.index(0.25, 0.25), true);
+		assertEquals("0.25", getElementStyle(0, TestSelectionStyle.STYLE_CAMEL));
+		assertEquals("0.75", getElementStyle(2, TestSelectionStyle.STYLE_CAMEL));
+		assertEquals("important", priority(selection.node()));
+	}
+
+	private static native String priority(Element element)/*-{
+		return element.style.getPropertyPriority('opacity');
+	}-*/;
+
 	protected void testSetterConstantString() {
 		// works with single selection
 		Selection selection = givenASimpleSelection(new Label());
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.demo.client.testcases.selection;
+
+import com.github.gwtd3.api.Coords;
+import com.github.gwtd3.api.D3;
+import com.github.gwtd3.api.arrays.Array;
+import com.github.gwtd3.api.behaviour.Zoom;
+import com.github.gwtd3.api.behaviour.Zoom.ZoomEventType;
+import com.github.gwtd3.api.core.Selection;
+import com.github.gwtd3.api.core.Value;
+import com.github.gwtd3.api.core.VirtualSelection;
+import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.JavascriptAccessor;
+import com.github.gwtd3.api.functions.SelectionFunction;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.user.client.ui.ComplexPanel;
+
+/**
+ * Test {@link VirtualSelection}.
+ */
+public class TestVirtualSelection extends AbstractSelectionTest {
+
+	@Override
+	public void doTest(final ComplexPanel sandbox) {
+		testWindow();
+		testUnsortedData();
+		testZoom();
+	}
+
+	/**
+	 * 100 points on the diagonal, from (0,0) to (99,99).
+	 */
+	private Array<Coords> givenADiagonal() {
+		Array<Coords> data = Array.create();
+		for (int i = 0; i < 100; i++) {
+			data.push(Coords.create(i, i));
+		}
+		return data;
+	}
+
+	private VirtualSelection givenAVirtualSelection(final int[] entered) {
+		clearSandbox();
+		Selection g = D3.select(sandbox).append("svg").append("g");
+		return new VirtualSelection(g, "circle")
+				.positions(Coords.X_ACCESSOR, Coords.Y_ACCESSOR)
+				.viewport(10, 10).onEnter(new SelectionFunction() {
+					@Override
+					public void apply(final Selection selection) {
+						entered[0] += selection.size();
+						selection.attr("r", 1);
+					}
+				}).onUpdate(new SelectionFunction() {
+					@Override
+					public void apply(final Selection selection) {
+						selection.attr("cx", JavascriptAccessor.property("x"))
+								.attr("cy", JavascriptAccessor.property("y"));
+					}
+				});
+	}
+
+	private void testWindow() {
+		int[] entered = new int[1];
+		VirtualSelection virtual = givenAVirtualSelection(entered);
+		virtual.data(givenADiagonal());
+		// (0,0) to (10,10)
+		assertEquals(11, virtual.visibleCount());
+		assertEquals(11, virtual.selection().size());
+		assertEquals(11, entered[0]);
+
+		// the elements are recycled
+		virtual.window(50, 50, 60, 60);
+		assertEquals(11, virtual.visibleCount());
+		assertEquals(11, entered[0]);
+		assertEquals("50", virtual.selection().attr("cx"));
+
+		virtual.margin(2).render();
+		assertEquals(15, virtual.visibleCount());
+		assertEquals(15, entered[0]);
+
+		virtual.margin(0).window(200, 200, 300, 300);
+		assertEquals(0, virtual.selection().size());
+	}
+
+	private void testUnsortedData() {
+		int[] entered = new int[1];
+		VirtualSelection virtual = givenAVirtualSelection(entered);
+		// the anti-diagonal, from (99,0) to (0,99)
+		Array<Coords> data = Array.create();
+		for (int i = 0; i < 100; i++) {
+			data.push(Coords.create(99 - i, i));
+		}
+		virtual.data(data);
+		virtual.window(50, 40, 60, 50);
+		assertEquals(10, virtual.visibleCount());
+		// the elements follow the order of the data, not the order of the
+		// x positions
+		assertEquals("59", virtual.selection().attr("cx"));
+	}
+
+	private void testZoom() {
+		int[] entered = new int[1];
+		VirtualSelection virtual = givenAVirtualSelection(entered);
+		virtual.data(givenADiagonal());
+		final int[] zooms = new int[1];
+		Zoom zoom = virtual.zoom(D3.behavior().zoom().on(ZoomEventType.ZOOM, new DatumFunction<Void>() {
+			@Override
+			public Void apply(final Element context, final Value d, final int index) {
+				zooms[0]++;
+				return null;
+			}
+		}));
+
+		// scale by 2 and pan to (20,20)
+		zoom.scale(2).translate(Array.fromDoubles(-40.0, -40.0));
+		zoom.event(D3.select(sandbox));
+		// window is (20,20) to (25,25)
+		assertEquals(6, virtual.visibleCount());
+		// the listener of the user is kept
+		assertEquals(1, zooms[0]);
+		assertEquals("20", virtual.selection().attr("cx"));
+		assertEquals("translate(-40,-40)scale(2)", virtual.selection().node()
+				.getParentElement().getAttribute("transform"));
+	}
+}
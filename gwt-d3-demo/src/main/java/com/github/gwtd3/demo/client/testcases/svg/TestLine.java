@@ -35,10 +35,13 @@
 import com.github.gwtd3.api.arrays.Array;
 import com.github.gwtd3.api.core.Value;
 import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.DoubleDatumFunction;
 import com.github.gwtd3.api.svg.Line;
 import com.github.gwtd3.api.svg.Line.InterpolationMode;
 import com.github.gwtd3.api.svg.RadialLine;
 import com.github.gwtd3.demo.client.test.AbstractTestCase;
+import com.google.gwt.canvas.client.Canvas;
+import com.google.gwt.canvas.dom.client.Context2d;
 import com.google.gwt.dom.client.Element;
 
 public class TestLine extends AbstractTestCase {
@@ -90,6 +93,21 @@ public Double apply(final Element context, final Value d,
         assertEquals(2.0, yCapture.get(1));
         assertEquals(3.0, yCapture.get(2));
 
+        // x and y with primitive functions
+        Line primitiveLine = D3.svg().line().xDouble(new DoubleDatumFunction() {
+            @Override
+            public double apply(final Element context, final Value d, final int index) {
+                return d.<Coords> as().x;
+            }
+        }).yDouble(new DoubleDatumFunction() {
+            @Override
+            public double apply(final Element context, final Value d, final int index) {
+                return d.<Coords> as().y * 2;
+            }
+        });
+        assertEquals("M1,2L2,4L3,6", primitiveLine.generate(Array.fromObjects(new Coords(1, 1), new Coords(2, 2),
+                new Coords(3, 3))));
+
         d = line.generate(Array.fromObjects(new Coords(1, 1), new Coords(2, 2),
                 new Coords(3, 3)));
         // System.out.println("defined : " + d);
@@ -125,6 +143,20 @@ public Double apply(final Element context, final Value d,
         });
 
         // does not assertEquals(2, counter.y);
+
+        // canvas rendering
+        Canvas canvas = Canvas.createIfSupported();
+        canvas.setCoordinateSpaceWidth(20);
+        canvas.setCoordinateSpaceHeight(20);
+        sandbox.add(canvas);
+        Context2d context = canvas.getContext2d();
+        context.setLineWidth(4);
+        context.setStrokeStyle("black");
+        D3.svg().line().stroke(context, Array.fromObjects(Array.fromInts(0, 5), Array.fromInts(20, 5)));
+        assertTrue(context.getImageData(10, 5, 1, 1).getAlphaAt(0, 0) > 0);
+        assertEquals(0, context.getImageData(10, 15, 1, 1).getAlphaAt(0, 0));
+        sandbox.clear();
+
         // Smoke test radial line
 
         RadialLine radial = D3.svg().radialLine();
@@ -32,9 +32,12 @@
 import com.github.gwtd3.api.arrays.Array;
 import com.github.gwtd3.api.core.Value;
 import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.JavascriptAccessor;
 import com.github.gwtd3.api.svg.Symbol;
 import com.github.gwtd3.api.svg.Symbol.Type;
 import com.github.gwtd3.demo.client.test.AbstractTestCase;
+import com.google.gwt.canvas.client.Canvas;
+import com.google.gwt.canvas.dom.client.Context2d;
 import com.google.gwt.dom.client.Element;
 
 public class TestSymbol extends AbstractTestCase {
@@ -80,6 +83,21 @@ public Type apply(Element context, Value d, int index) {
 				return Type.CIRCLE;
 			}
 		});
+
+		// canvas rendering: one square per datum, at its x and y
+		Canvas canvas = Canvas.createIfSupported();
+		canvas.setCoordinateSpaceWidth(40);
+		canvas.setCoordinateSpaceHeight(40);
+		sandbox.add(canvas);
+		Context2d context = canvas.getContext2d();
+		context.setFillStyle("black");
+		D3.svg().symbol().type(Type.SQUARE).size(16).fillEach(context,
+				Array.fromInts(0, 0), JavascriptAccessor.index(25, 5),
+				JavascriptAccessor.index(25, 5));
+		assertTrue(context.getImageData(5, 5, 1, 1).getAlphaAt(0, 0) > 0);
+		assertTrue(context.getImageData(30, 30, 1, 1).getAlphaAt(0, 0) > 0);
+		assertEquals(0, context.getImageData(18, 18, 1, 1).getAlphaAt(0, 0));
+		sandbox.clear();
 	}
 
 }
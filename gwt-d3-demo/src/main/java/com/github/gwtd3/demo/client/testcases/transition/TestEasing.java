@@ -32,6 +32,7 @@
 import com.github.gwtd3.api.core.Selection;
 import com.github.gwtd3.api.ease.Easing;
 import com.github.gwtd3.api.ease.EasingFunction;
+import com.github.gwtd3.api.ease.EasingTable;
 import com.github.gwtd3.api.ease.Mode;
 import com.github.gwtd3.demo.client.test.AbstractTestCase;
 import com.google.gwt.user.client.DOM;
@@ -81,6 +82,19 @@ public double ease(final double t) {
 		};
 		testEasingFunction(f, f);
 
+		// lookup tables
+		EasingTable bounce = Easing.table(Easing.bounce(), 1024);
+		testEasingFunction(bounce, Easing.table(f));
+		assertEquals(1024, bounce.resolution());
+		assertTrue(bounce.maxError() < 0.01);
+		assertTrue(Easing.table(Easing.bounce(), 8).maxError() > bounce.maxError());
+		// linear functions are exact
+		EasingTable linear = Easing.table(f, 4);
+		assertEquals(0.0, linear.maxError(), 1e-12);
+		assertEquals(0.3, linear.ease(0.3), 1e-12);
+		assertEquals(1.0, linear.ease(2));
+		assertEquals(Easing.cubic().ease(0.5), Easing.table(Easing.cubic(), 2).ease(0.5), 1e-12);
+
 		// pass it
 	}
 
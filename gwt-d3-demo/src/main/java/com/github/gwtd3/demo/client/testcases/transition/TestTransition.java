@@ -29,14 +29,17 @@
 package com.github.gwtd3.demo.client.testcases.transition;
 
 import com.github.gwtd3.api.D3;
+import com.github.gwtd3.api.arrays.Array;
 import com.github.gwtd3.api.core.Selection;
 import com.github.gwtd3.api.core.Transition;
 import com.github.gwtd3.api.core.Transition.EventType;
 import com.github.gwtd3.api.core.Value;
 import com.github.gwtd3.api.ease.Easing;
 import com.github.gwtd3.api.functions.DatumFunction;
+import com.github.gwtd3.api.functions.DoubleDatumFunction;
 import com.github.gwtd3.api.interpolators.CallableInterpolator;
 import com.github.gwtd3.api.interpolators.Interpolator;
+import com.github.gwtd3.api.tweens.JavascriptTween;
 import com.github.gwtd3.api.tweens.TweenFunction;
 import com.github.gwtd3.demo.client.testcases.selection.AbstractSelectionTest;
 import com.google.gwt.dom.client.Element;
@@ -119,6 +122,62 @@ public String apply(final Element context, final Value d,
 		assertNotNull(D3.transition());
 		// FIXME: with argument
 
+		testNumericTweens();
+		testJavascriptTweens();
+	}
+
+	private void testJavascriptTweens() {
+		clearSandbox();
+		Selection path = D3.select(sandbox).append("svg").append("path")
+				.attr("width", 5).attr("fill", "red");
+		path.transition().duration(0)
+				.attrTween("width", JavascriptTween.number(15))
+				.attrTween("fill", JavascriptTween.color("blue"))
+				.attrTween("d", JavascriptTween.points(
+						Array.fromObjects(Array.fromInts(0, 0), Array.fromInts(1, 1)),
+						Array.fromObjects(Array.fromInts(10, 0), Array.fromInts(10, 10)), true));
+		D3.timerFlush();
+		assertEquals("15", path.attr("width"));
+		assertEquals("rgb(0,0,255)", path.attr("fill"));
+		assertEquals("M10,0L10,10Z", path.attr("d"));
+
+		// invoked from java
+		Interpolator<Value> interpolator = JavascriptTween.number(0, 10).apply(null, Value.create(null), 0,
+				Value.create(null));
+		assertEquals(5.0, interpolator.interpolate(0.5).asDouble(), 0.0);
+	}
+
+	private void testNumericTweens() {
+		clearSandbox();
+		Selection g = D3.select(sandbox).append("svg").append("g")
+				.attr("transform", "translate(10,20)").attr("width", 5)
+				.style("opacity", "0.5");
+		g.transition().duration(0).attrNumber("width", 15)
+				.styleNumber("opacity", 1, null).translate(30, 40).scale(2);
+		D3.timerFlush();
+		assertEquals("15", g.attr("width"));
+		assertEquals("1", g.node().getStyle().getOpacity());
+		assertEquals("translate(30,40)scale(2,2)", g.attr("transform"));
+
+		g.transition().duration(0).rotate(90).attrNumber("width", new DoubleDatumFunction() {
+			@Override
+			public double apply(final Element context, final Value d, final int index) {
+				return 25;
+			}
+		});
+		D3.timerFlush();
+		assertEquals("25", g.attr("width"));
+		assertEquals("translate(30,40)rotate(90)scale(2,2)", g.attr("transform"));
+
+		// the skew is kept, the identity rotation and scale are omitted
+		g.attr("transform", "translate(10,20)skewX(30)");
+		g.transition().duration(0).translate(30, 40);
+		D3.timerFlush();
+		assertTrue(g.attr("transform").startsWith("translate(30,40)skewX("));
+		g.attr("transform", "translate(10,20)");
+		g.transition().duration(0).attrTween("transform", JavascriptTween.transform(30, 40, 1, 0));
+		D3.timerFlush();
+		assertEquals("translate(30,40)", g.attr("transform"));
 	}
 
 }
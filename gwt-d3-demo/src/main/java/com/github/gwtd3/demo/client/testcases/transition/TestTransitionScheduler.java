@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2013, Anthony Schiochet and Eric Citaire
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * * The names Anthony Schiochet and Eric Citaire may not be used to endorse or promote products
+ *   derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL MICHAEL BOSTOCK BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING,
+ * BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY
+ * OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.gwtd3.demo.client.testcases.transition;
+
+import com.github.gwtd3.api.D3;
+import com.github.gwtd3.api.arrays.Array;
+import com.github.gwtd3.api.core.ScheduledTransition;
+import com.github.gwtd3.api.core.Selection;
+import com.github.gwtd3.api.core.TransitionScheduler;
+import com.github.gwtd3.api.core.Value;
+import com.github.gwtd3.api.ease.Easing;
+import com.github.gwtd3.api.functions.DoubleDatumFunction;
+import com.github.gwtd3.api.functions.SelectionFunction;
+import com.github.gwtd3.demo.client.testcases.selection.AbstractSelectionTest;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.user.client.ui.ComplexPanel;
+
+/**
+ * Test {@link TransitionScheduler} and {@link ScheduledTransition}.
+ */
+public class TestTransitionScheduler extends AbstractSelectionTest {
+
+	@Override
+	public void doTest(final ComplexPanel sandbox) {
+		clearSandbox();
+		Selection rects = D3.select(sandbox).append("svg").selectAll("rect")
+				.data(Array.fromInts(1, 2, 3)).enter().append("rect")
+				.attr("x", 0);
+
+		TransitionScheduler scheduler = new TransitionScheduler();
+		final int[] calls = new int[2];
+		double t0 = TransitionScheduler.now();
+		ScheduledTransition transition = scheduler.transition(rects)
+				.duration(100).ease(Easing.linear())
+				.attrDouble("x", new DoubleDatumFunction() {
+					@Override
+					public double apply(final Element context, final Value d, final int index) {
+						calls[0]++;
+						return d.asInt() * 100;
+					}
+				}).onEnd(new SelectionFunction() {
+					@Override
+					public void apply(final Selection selection) {
+						calls[1]++;
+					}
+				});
+		assertEquals(1, scheduler.active());
+
+		// the end values are computed once per element
+		scheduler.flush(t0 + 50);
+		assertEquals(3, calls[0]);
+		assertEquals(50, Double.parseDouble(rects.attr("x")), 1);
+		scheduler.flush(t0 + 75);
+		assertEquals(3, calls[0]);
+		assertEquals(75, Double.parseDouble(rects.attr("x")), 1);
+		assertFalse(transition.isEnded());
+
+		// end
+		scheduler.flush(t0 + 200);
+		assertEquals("100", rects.attr("x"));
+		assertTrue(transition.isEnded());
+		assertEquals(1, calls[1]);
+		assertEquals(0, scheduler.active());
+
+		// a newer transition takes over the elements
+		ScheduledTransition first = scheduler.transition(rects).duration(100).ease(Easing.linear()).attr("y", 100);
+		ScheduledTransition second = scheduler.transition(rects).duration(100).ease(Easing.linear()).attr("y", 100)
+				.delay(10);
+		double t1 = TransitionScheduler.now();
+		scheduler.flush(t1 + 50);
+		scheduler.flush(t1 + 500);
+		assertTrue(first.isEnded());
+		assertTrue(second.isEnded());
+		assertEquals("100", rects.attr("y"));
+
+		// a null end value removes the attribute or the style
+		rects.style("fill", "red");
+		scheduler.transition(rects).duration(0).attr("y", (String) null).style("fill", (String) null);
+		scheduler.flush(TransitionScheduler.now() + 1);
+		assertNull(rects.attr("y"));
+		assertEquals("", rects.node().getStyle().getProperty("fill"));
+
+		// cancel and remove
+		ScheduledTransition removed = scheduler.transition(rects).remove();
+		removed.cancel();
+		scheduler.flush(TransitionScheduler.now() + 1000);
+		assertEquals(3, D3.select(sandbox).selectAll("rect").size());
+		scheduler.transition(rects).duration(0).remove();
+		scheduler.flush(TransitionScheduler.now() + 1);
+		assertEquals(0, D3.select(sandbox).selectAll("rect").size());
+
+		// budget
+		scheduler.budget(4).resetCounters();
+		assertEquals(4.0, scheduler.budget(), 0.0);
+		assertEquals(0, scheduler.frames());
+	}
+}
@@ -46,10 +46,11 @@ public class AbstractSeleniumTest {
     private static final String RUN_SELENIUM_LOCALHOST = "selenium.localhost";
     private static final String WEBAPP_URL = "selenium.webapp.url";
     protected WebDriver driver;
+    protected String webAppUrl;
 
     @Before
     public void setup() throws MalformedURLException {
-        String webAppUrl = System.getProperty(WEBAPP_URL);
+        webAppUrl = System.getProperty(WEBAPP_URL);
         System.setProperty("SELENIUM_STARTING_URL", "http://127.0.0.1:8888/D3Demo.html?gwt.codesvr=127.0.0.1:9997");
 
         // separate localhost and saucelabls/cloudbees env
@@ -68,6 +69,16 @@ public void setup() throws MalformedURLException {
         driver.get(webAppUrl);
     }
 
+    /**
+     * Load another host page of the demo application, such as D3DemoInstrumented.html.
+     *
+     * @param page
+     *            the name of the host page
+     */
+    protected void open(final String page) {
+        driver.get(webAppUrl.replace("D3Demo.html", page));
+    }
+
     @After
     public void tearDown() throws Exception {
         if (driver != null) {
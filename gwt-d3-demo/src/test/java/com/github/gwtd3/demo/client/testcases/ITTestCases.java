@@ -51,4 +51,15 @@ public void testCasesPass() {
 		Assertions.assertThat(testSuite.unitTestsAreSuccess()).isTrue();
 	}
 
+	@Test
+	public void testCasesPassWithInstrumentation() {
+		// run the recording path of TestInstrumentation
+		open("D3DemoInstrumented.html");
+		DemoApplication application = DemoApplication.getInstance(driver);
+
+		TestSuiteScreen testSuite = application.testCaseButton().click();
+		testSuite.clickRun().waitTestsAreAllDone();
+		Assertions.assertThat(testSuite.unitTestsAreSuccess()).isTrue();
+	}
+
 }